@@ -1,5 +1,6 @@
 package kz.kbtu.common.dto;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -28,6 +29,9 @@ public class ArticleAnalysisDto {
     @Builder.Default
     private List<PredictionDto> predictions = new ArrayList<>();
 
+    // Calendar events from a combined analysis; null when events are extracted in a separate call
+    private List<MarketEventDto> events;
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -45,6 +49,7 @@ public class ArticleAnalysisDto {
         private List<String> sectors = new ArrayList<>();
 
         private String direction;
+        @JsonAlias("time_horizon")
         private String timeHorizon;
         private Integer confidence;
         private String rationale;
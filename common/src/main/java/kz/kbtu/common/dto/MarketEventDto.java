@@ -1,5 +1,6 @@
 package kz.kbtu.common.dto;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.*;
 
 /**
@@ -28,5 +29,9 @@ public class MarketEventDto {
     /** Ticker symbol, null for macro events */
     private String companyTicker;
 
+    /** Company name as written by the LLM in combined analysis; linked to a ticker after company resolution */
+    @JsonAlias("company")
+    private String companyName;
+
     private String sector;
 }
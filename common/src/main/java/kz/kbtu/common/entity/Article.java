@@ -97,6 +97,17 @@ public class Article extends BaseEntity {
     @Builder.Default
     private Boolean isAnalyzed = false;
 
+    // Recovery bookkeeping for articles that did not make it through the pipeline
+    @Column(name = "processing_attempts")
+    @Builder.Default
+    private Integer processingAttempts = 0;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
     // Helper methods
     public void addPrediction(Prediction prediction) {
         predictions.add(prediction);
@@ -0,0 +1,24 @@
+package kz.kbtu.common.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "company_aliases", indexes = {
+    @Index(name = "idx_company_alias_alias", columnList = "alias", unique = true),
+    @Index(name = "idx_company_alias_company", columnList = "company_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompanyAlias extends BaseEntity {
+
+    @Column(name = "alias", nullable = false, length = 200, unique = true)
+    private String alias; // Normalized name variant, e.g. "apple" for "Apple", "Apple Inc" and "Apple Inc."
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "company_id", nullable = false)
+    private Company company;
+}
@@ -0,0 +1,43 @@
+package kz.kbtu.common.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "rss_feeds", indexes = {
+    @Index(name = "idx_rss_feed_url", columnList = "url", unique = true),
+    @Index(name = "idx_rss_feed_next_poll", columnList = "next_poll_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RssFeed extends BaseEntity {
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name; // e.g., "CNBC Technology"
+
+    @Column(name = "url", nullable = false, length = 1000, unique = true)
+    private String url;
+
+    @Column(name = "poll_interval_seconds", nullable = false)
+    @Builder.Default
+    private Integer pollIntervalSeconds = 900;
+
+    @Column(name = "jitter_seconds", nullable = false)
+    @Builder.Default
+    private Integer jitterSeconds = 120; // Random extra delay so feeds don't poll in lockstep
+
+    @Column(name = "enabled", nullable = false)
+    @Builder.Default
+    private Boolean enabled = true;
+
+    @Column(name = "last_polled_at")
+    private LocalDateTime lastPolledAt;
+
+    @Column(name = "next_poll_at")
+    private LocalDateTime nextPollAt; // null = due immediately
+}
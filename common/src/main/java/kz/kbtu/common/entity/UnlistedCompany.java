@@ -0,0 +1,25 @@
+package kz.kbtu.common.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "unlisted_companies", indexes = {
+    @Index(name = "idx_unlisted_company_name", columnList = "name", unique = true),
+    @Index(name = "idx_unlisted_company_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UnlistedCompany extends BaseEntity {
+
+    @Column(name = "name", nullable = false, length = 200, unique = true)
+    private String name; // Normalized company name with no listed match, e.g. "openai"
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt; // Looked up again after this (the company may have gone public)
+}
@@ -0,0 +1,98 @@
+package kz.kbtu.common.llm;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Non-blocking semaphore capping the concurrent LLM requests of one caller.
+ * A request that finds the quota used up waits in a FIFO queue without holding a thread.
+ * The caller's {@link LlmPriority} orders its requests against other callers' in {@link ConnectionGate}.
+ */
+final class CallerQuota {
+
+    private final String caller;
+    private final int permits;
+    private final LlmPriority priority;
+    private final Deque<MonoSink<Permit>> waiters = new ArrayDeque<>();
+    private int inUse;
+
+    CallerQuota(String caller, int permits, LlmPriority priority) {
+        this.caller = caller;
+        this.permits = Math.max(1, permits);
+        this.priority = priority;
+    }
+
+    /**
+     * Emits a permit once one is free. Cancelling the subscription while waiting leaves the queue.
+     */
+    Mono<Permit> acquire() {
+        return Mono.<Permit>create(sink -> {
+            synchronized (this) {
+                if (inUse < permits) {
+                    inUse++;
+                } else {
+                    waiters.addLast(sink);
+                    sink.onCancel(() -> {
+                        synchronized (this) {
+                            waiters.remove(sink);
+                        }
+                    });
+                    return;
+                }
+            }
+            sink.success(new Permit());
+        })
+                // A permit handed to a waiter that was cancelled in the meantime goes back to the pool
+                .doOnDiscard(Permit.class, Permit::release);
+    }
+
+    private void release() {
+        MonoSink<Permit> next;
+        synchronized (this) {
+            next = waiters.pollFirst();
+            if (next == null) {
+                inUse--;
+                return;
+            }
+        }
+        // The permit passes straight to the next waiter
+        next.success(new Permit());
+    }
+
+    String getCaller() {
+        return caller;
+    }
+
+    int getPermits() {
+        return permits;
+    }
+
+    LlmPriority getPriority() {
+        return priority;
+    }
+
+    synchronized int getInUse() {
+        return inUse;
+    }
+
+    synchronized int getWaiting() {
+        return waiters.size();
+    }
+
+    final class Permit {
+        private boolean released;
+
+        void release() {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            CallerQuota.this.release();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package kz.kbtu.common.llm;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Non-blocking semaphore shared by all callers of {@link OllamaClient}, one permit per connection.
+ * Waiters are served by {@link LlmPriority}: interactive first, FIFO within a class. Interactive callers
+ * are still capped by their own {@link CallerQuota}, so as long as that is below the number of permits
+ * batch work keeps getting connections.
+ */
+final class ConnectionGate {
+
+    private final int permits;
+    private final Deque<MonoSink<Permit>> interactive = new ArrayDeque<>();
+    private final Deque<MonoSink<Permit>> batch = new ArrayDeque<>();
+    private int inUse;
+
+    ConnectionGate(int permits) {
+        this.permits = Math.max(1, permits);
+    }
+
+    /**
+     * Emits a permit once one is free. Cancelling the subscription while waiting leaves the queue.
+     */
+    Mono<Permit> acquire(LlmPriority priority) {
+        return Mono.<Permit>create(sink -> {
+            Deque<MonoSink<Permit>> queue = priority == LlmPriority.INTERACTIVE ? interactive : batch;
+            synchronized (this) {
+                if (inUse < permits) {
+                    inUse++;
+                } else {
+                    queue.addLast(sink);
+                    sink.onCancel(() -> {
+                        synchronized (this) {
+                            queue.remove(sink);
+                        }
+                    });
+                    return;
+                }
+            }
+            sink.success(new Permit());
+        })
+                // A permit handed to a waiter that was cancelled in the meantime goes back to the gate
+                .doOnDiscard(Permit.class, Permit::release);
+    }
+
+    private void release() {
+        MonoSink<Permit> next;
+        synchronized (this) {
+            next = interactive.pollFirst();
+            if (next == null) {
+                next = batch.pollFirst();
+            }
+            if (next == null) {
+                inUse--;
+                return;
+            }
+        }
+        // The permit passes straight to the next waiter
+        next.success(new Permit());
+    }
+
+    synchronized int getWaiting(LlmPriority priority) {
+        return priority == LlmPriority.INTERACTIVE ? interactive.size() : batch.size();
+    }
+
+    final class Permit {
+        private boolean released;
+
+        void release() {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            ConnectionGate.this.release();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package kz.kbtu.common.llm;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LlmClientProperties.class)
+public class LlmClientConfig {
+}
@@ -0,0 +1,29 @@
+package kz.kbtu.common.llm;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Transport settings of {@link OllamaClient} ({@code llm.client.*}).
+ *
+ * @param connectTimeoutMs   TCP connect timeout
+ * @param firstByteTimeoutMs longest wait for the first response byte, and between two chunks of a stream
+ * @param totalTimeoutMs     upper bound for a whole request including the streamed body
+ * @param maxConnections     size of the connection pool shared by all backends and callers
+ * @param defaultQuota       concurrent requests allowed for a caller without an entry in {@code quotas}
+ * @param quotas             concurrent requests allowed per caller name
+ * @param priorities         scheduling class per caller name when requests wait for a connection;
+ *                           callers without an entry are {@link LlmPriority#BATCH}
+ */
+@ConfigurationProperties("llm.client")
+public record LlmClientProperties(
+        @DefaultValue("5000") long connectTimeoutMs,
+        @DefaultValue("120000") long firstByteTimeoutMs,
+        @DefaultValue("600000") long totalTimeoutMs,
+        @DefaultValue("32") int maxConnections,
+        @DefaultValue("8") int defaultQuota,
+        Map<String, Integer> quotas,
+        Map<String, LlmPriority> priorities) {
+}
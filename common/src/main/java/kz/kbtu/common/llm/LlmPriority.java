@@ -0,0 +1,12 @@
+package kz.kbtu.common.llm;
+
+/**
+ * Scheduling class of an LLM request: of a caller in {@link OllamaClient} ({@code llm.client.priorities}),
+ * and of a single request in news-service's backend pool.
+ */
+public enum LlmPriority {
+    /** A user or a blocked single-threaded step is waiting for the answer; served first. */
+    INTERACTIVE,
+    /** Background work such as article analysis; yields to interactive requests. */
+    BATCH
+}
@@ -0,0 +1,325 @@
+package kz.kbtu.common.llm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed, disk-backed cache of LLM generations, shared by every Ollama caller.
+ *
+ * An entry is keyed by the SHA-256 of the canonical JSON of model, prompt and options, so two
+ * requests share an entry only if Ollama would have received exactly the same input. Entries
+ * are stored as {@code <dir>/<first two hex chars>/<hash>.json} and survive restarts; once the
+ * directory grows beyond {@code llm.cache.max-size-mb}, least recently used entries are deleted
+ * until it is back under {@link #EVICT_TO_RATIO} of the limit.
+ *
+ * Several processes (news-service and web-api) may share one directory. The in-memory index is
+ * only a shortcut: a key missing from it is looked up on disk, so entries written by another process
+ * are served too. Recency is the file modification time, which every hit refreshes, and eviction
+ * works from a scan of the whole directory, so the limit holds for the directory rather than per
+ * process. The directory is rescanned whenever this process has written another
+ * {@code 1 - EVICT_TO_RATIO} of the limit since the last scan, which bounds how far the processes
+ * together can overshoot it.
+ *
+ * Callers only {@link #put} responses they managed to parse, so a malformed generation is
+ * never served again. Hits, misses and evictions are exported as {@code llm.cache.*} meters
+ * when the application has a meter registry.
+ */
+@Component
+@Slf4j
+public class LlmResponseCache {
+
+    private static final double EVICT_TO_RATIO = 0.9;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    // Key → file size of the entries known to this process; recency lives in the file modification times
+    private final Map<String, Long> entries = new ConcurrentHashMap<>();
+    // Directory size at the last scan plus what was written or found since
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong writtenSinceScan = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${llm.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${llm.cache.dir:llm-cache}")
+    private Path dir;
+
+    @Value("${llm.cache.max-size-mb:512}")
+    private long maxSizeMb;
+
+    public LlmResponseCache(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!enabled) {
+            log.info("LLM response cache disabled");
+            return;
+        }
+        Files.createDirectories(dir);
+        scan();
+        log.info("LLM response cache at {}: {} entries, {} KB (max {} MB)",
+                dir.toAbsolutePath(), entries.size(), totalBytes.get() / 1024, maxSizeMb);
+
+        meterRegistry.ifAvailable(this::bindMetrics);
+    }
+
+    /**
+     * Cache key for one generation request; {@code options} are the Ollama options sent with it.
+     */
+    public String key(String model, String prompt, Map<String, ?> options) {
+        return sha256(canonicalRequest(model, prompt, options));
+    }
+
+    /**
+     * The JSON that {@link #key} hashes, with map entries sorted: equal for two requests exactly when their
+     * keys are. Readable, so it can also serve as the key of a recorded fixture.
+     */
+    public String canonicalRequest(String model, String prompt, Map<String, ?> options) {
+        Map<String, Object> request = new TreeMap<>();
+        request.put("model", model);
+        request.put("prompt", prompt);
+        request.put("options", options != null ? options : Map.of());
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Optional<String> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Path file = file(key);
+        // Not indexed yet if another process sharing the directory wrote it
+        if (!entries.containsKey(key) && !index(key, file)) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        try {
+            String response = objectMapper.readTree(file.toFile()).path("response").asText(null);
+            if (response == null) {
+                throw new IOException("Entry has no response");
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            hits.incrementAndGet();
+            return Optional.of(response);
+        } catch (NoSuchFileException | FileNotFoundException e) {
+            // Evicted by another process
+            forget(key);
+            misses.incrementAndGet();
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Dropping unreadable LLM cache entry {}: {}", key, e.getMessage());
+            invalidate(key);
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    public void put(String key, String model, String response) {
+        if (!enabled || response == null) {
+            return;
+        }
+        Path file = file(key);
+        try {
+            ObjectNode node = objectMapper.createObjectNode()
+                    .put("model", model)
+                    .put("response", response);
+            byte[] bytes = objectMapper.writeValueAsString(node).getBytes(StandardCharsets.UTF_8);
+
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), key, ".tmp");
+            Files.write(tmp, bytes);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Long previous = entries.put(key, (long) bytes.length);
+            totalBytes.addAndGet(bytes.length - (previous != null ? previous : 0));
+            writtenSinceScan.addAndGet(bytes.length);
+        } catch (IOException e) {
+            log.warn("Failed to write LLM cache entry {}: {}", key, e.getMessage());
+            return;
+        }
+
+        if (totalBytes.get() > maxBytes() || writtenSinceScan.get() > maxBytes() * (1 - EVICT_TO_RATIO)) {
+            evict();
+        }
+    }
+
+    /**
+     * Removes an entry, e.g. when a cached response no longer parses.
+     */
+    public void invalidate(String key) {
+        forget(key);
+        try {
+            Files.deleteIfExists(file(key));
+        } catch (IOException e) {
+            log.warn("Failed to delete LLM cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Rescans the directory, then deletes the least recently used files until it is back under
+     * {@link #EVICT_TO_RATIO} of the limit.
+     */
+    private void evict() {
+        synchronized (evictionLock) {
+            List<ScannedFile> files;
+            try {
+                files = scan();
+            } catch (IOException e) {
+                log.warn("Failed to scan LLM cache directory {}: {}", dir, e.getMessage());
+                return;
+            }
+            long target = (long) (maxBytes() * EVICT_TO_RATIO);
+            if (totalBytes.get() <= maxBytes()) {
+                return;
+            }
+            files.sort(Comparator.comparingLong(ScannedFile::lastModified));
+
+            int evicted = 0;
+            for (ScannedFile oldest : files) {
+                if (totalBytes.get() <= target) {
+                    break;
+                }
+                invalidate(oldest.key());
+                evicted++;
+            }
+            evictions.addAndGet(evicted);
+            log.info("Evicted {} LLM cache entries, cache now {} KB", evicted, totalBytes.get() / 1024);
+        }
+    }
+
+    /**
+     * Rebuilds the index and size from the files in the directory, including those of other processes.
+     */
+    private List<ScannedFile> scan() throws IOException {
+        List<ScannedFile> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.filter(p -> p.getFileName().toString().endsWith(".json")).forEach(file -> {
+                try {
+                    String name = file.getFileName().toString();
+                    files.add(new ScannedFile(name.substring(0, name.length() - ".json".length()),
+                            Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+                } catch (IOException e) {
+                    // Deleted while scanning
+                    log.debug("Skipping LLM cache file {}: {}", file, e.getMessage());
+                }
+            });
+        }
+
+        Map<String, Long> scanned = new HashMap<>();
+        long total = 0;
+        for (ScannedFile file : files) {
+            scanned.put(file.key(), file.size());
+            total += file.size();
+        }
+        entries.keySet().retainAll(scanned.keySet());
+        entries.putAll(scanned);
+        totalBytes.set(total);
+        writtenSinceScan.set(0);
+        return files;
+    }
+
+    /**
+     * @return false if there is no such file
+     */
+    private boolean index(String key, Path file) {
+        try {
+            long size = Files.size(file);
+            if (entries.putIfAbsent(key, size) == null) {
+                totalBytes.addAndGet(size);
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void forget(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes.addAndGet(-size);
+        }
+    }
+
+    private void bindMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("llm.cache.requests", hits, AtomicLong::get)
+                .description("LLM cache lookups")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("llm.cache.requests", misses, AtomicLong::get)
+                .description("LLM cache lookups")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("llm.cache.evictions", evictions, AtomicLong::get)
+                .description("LLM cache entries deleted to stay under the size limit")
+                .register(registry);
+        Gauge.builder("llm.cache.size", totalBytes, AtomicLong::get)
+                .description("Bytes used by the LLM cache on disk")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("llm.cache.entries", entries, Map::size)
+                .description("Entries in the LLM cache")
+                .register(registry);
+    }
+
+    private long maxBytes() {
+        return maxSizeMb * 1024 * 1024;
+    }
+
+    private Path file(String key) {
+        return dir.resolve(key.substring(0, 2)).resolve(key + ".json");
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record ScannedFile(String key, long size, long lastModified) {
+    }
+}
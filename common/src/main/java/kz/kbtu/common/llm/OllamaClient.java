@@ -0,0 +1,189 @@
+package kz.kbtu.common.llm;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The one HTTP client for Ollama, shared by every LLM caller in a service.
+ *
+ * All requests go over a single non-blocking Reactor Netty connection pool, whatever backend
+ * they target, with connect, first-byte and total timeouts from {@link LlmClientProperties}.
+ * Each caller (e.g. "analysis", "company", "education") has its own quota of concurrent requests,
+ * so one workload cannot take every connection; requests over quota wait without holding a thread.
+ * Requests that find every connection busy queue by their caller's {@link LlmPriority}, so an interactive
+ * caller overtakes batch work that is already waiting.
+ *
+ * Methods return {@link Mono}/{@link Flux}; blocking callers simply {@code block()} on them.
+ */
+@Component
+@Slf4j
+public class OllamaClient {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT =
+            new ParameterizedTypeReference<>() { };
+
+    private final LlmClientProperties properties;
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+    private final Duration totalTimeout;
+    private final Map<String, CallerQuota> quotas = new ConcurrentHashMap<>();
+    private final ConnectionGate connections;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public OllamaClient(LlmClientProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.totalTimeout = Duration.ofMillis(properties.totalTimeoutMs());
+        this.connections = new ConnectionGate(properties.maxConnections());
+        meterRegistry.ifAvailable(this::bindGateMetrics);
+        this.connectionProvider = ConnectionProvider.builder("ollama")
+                .maxConnections(properties.maxConnections())
+                .pendingAcquireMaxCount(-1)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.connectTimeoutMs())
+                // Applies to the first byte of the response and to every pause between streamed chunks
+                .responseTimeout(Duration.ofMillis(properties.firstByteTimeoutMs()));
+
+        this.webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+
+        log.info("Ollama client: {} connections, timeouts connect={} ms, first byte={} ms, total={} ms, quotas={} (default {}), priorities={}",
+                properties.maxConnections(), properties.connectTimeoutMs(), properties.firstByteTimeoutMs(),
+                properties.totalTimeoutMs(), properties.quotas() != null ? properties.quotas() : Map.of(),
+                properties.defaultQuota(), properties.priorities() != null ? properties.priorities() : Map.of());
+    }
+
+    @PreDestroy
+    void close() {
+        connectionProvider.dispose();
+    }
+
+    /**
+     * Non-streaming {@code POST /api/generate}; {@code request} must have {@code "stream": false}.
+     *
+     * @param caller  quota the request counts against
+     * @param baseUrl Ollama backend, e.g. {@code http://localhost:11434}
+     */
+    public Mono<Map<String, Object>> generate(String caller, String baseUrl, Map<String, Object> request) {
+        return call(caller, baseUrl + "/api/generate", request);
+    }
+
+    /**
+     * Streaming {@code POST /api/generate}; {@code request} must have {@code "stream": true}.
+     * Emits one map per NDJSON chunk. Cancelling the subscription closes the connection,
+     * which makes Ollama stop generating.
+     */
+    public Flux<Map<String, Object>> stream(String caller, String baseUrl, Map<String, Object> request) {
+        return callStream(caller, baseUrl + "/api/generate", request);
+    }
+
+    /**
+     * Non-streaming {@code POST /api/chat}. When the last message is from the assistant, Ollama
+     * continues that message instead of starting a new one.
+     */
+    public Mono<Map<String, Object>> chat(String caller, String baseUrl, Map<String, Object> request) {
+        return call(caller, baseUrl + "/api/chat", request);
+    }
+
+    /**
+     * Streaming {@code POST /api/chat}; see {@link #chat} and {@link #stream}.
+     */
+    public Flux<Map<String, Object>> streamChat(String caller, String baseUrl, Map<String, Object> request) {
+        return callStream(caller, baseUrl + "/api/chat", request);
+    }
+
+    private Mono<Map<String, Object>> call(String caller, String url, Map<String, Object> request) {
+        CallerQuota quota = quota(caller);
+        return quota.acquire().flatMap(permit -> connections.acquire(quota.getPriority())
+                .flatMap(connection -> webClient.post()
+                        .uri(url)
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(JSON_OBJECT)
+                        .timeout(totalTimeout)
+                        .doFinally(signal -> connection.release()))
+                .doFinally(signal -> permit.release()));
+    }
+
+    private Flux<Map<String, Object>> callStream(String caller, String url, Map<String, Object> request) {
+        CallerQuota quota = quota(caller);
+        return quota.acquire().flatMapMany(permit -> connections.acquire(quota.getPriority())
+                .flatMapMany(connection -> webClient.post()
+                        .uri(url)
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToFlux(JSON_OBJECT)
+                        .timeout(totalTimeout)
+                        .doFinally(signal -> connection.release()))
+                .doFinally(signal -> permit.release()));
+    }
+
+    /**
+     * {@code GET /} of a backend; not subject to caller quotas or connection scheduling.
+     */
+    public Mono<String> ping(String baseUrl, Duration timeout) {
+        return webClient.get()
+                .uri(baseUrl + "/")
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(timeout);
+    }
+
+    private CallerQuota quota(String caller) {
+        return quotas.computeIfAbsent(caller, name -> {
+            int permits = properties.quotas() != null
+                    ? properties.quotas().getOrDefault(name, properties.defaultQuota())
+                    : properties.defaultQuota();
+            LlmPriority priority = properties.priorities() != null
+                    ? properties.priorities().getOrDefault(name, LlmPriority.BATCH)
+                    : LlmPriority.BATCH;
+            CallerQuota quota = new CallerQuota(name, permits, priority);
+            meterRegistry.ifAvailable(registry -> bindMetrics(registry, quota));
+            return quota;
+        });
+    }
+
+    private void bindMetrics(MeterRegistry registry, CallerQuota quota) {
+        Gauge.builder("llm.client.in.flight", quota, CallerQuota::getInUse)
+                .description("Ollama requests running for a caller")
+                .tag("caller", quota.getCaller())
+                .register(registry);
+        Gauge.builder("llm.client.waiting", quota, CallerQuota::getWaiting)
+                .description("Ollama requests waiting for a caller's quota")
+                .tag("caller", quota.getCaller())
+                .register(registry);
+        Gauge.builder("llm.client.quota", quota, CallerQuota::getPermits)
+                .description("Concurrent Ollama requests allowed for a caller")
+                .tag("caller", quota.getCaller())
+                .register(registry);
+    }
+
+    private void bindGateMetrics(MeterRegistry registry) {
+        for (LlmPriority priority : LlmPriority.values()) {
+            Gauge.builder("llm.client.connection.waiting", connections, gate -> gate.getWaiting(priority))
+                    .description("Ollama requests waiting for a connection, by caller priority")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package kz.kbtu.common.llm;
+
+import kz.kbtu.ollamasimulator.LatencyDistribution;
+import kz.kbtu.ollamasimulator.OllamaSimulator;
+import kz.kbtu.ollamasimulator.ResponseScript;
+import kz.kbtu.ollamasimulator.SimulatorConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Connection scheduling by caller priority against {@link OllamaSimulator}, with fewer connections than requests.
+ */
+@SpringBootTest(classes = OllamaClientPriorityTest.TestConfig.class, properties = {
+        "llm.client.max-connections=2",
+        "llm.client.priorities.education=interactive"
+})
+class OllamaClientPriorityTest {
+
+    private static final OllamaSimulator SIMULATOR = startSimulator();
+
+    @Configuration
+    @Import({OllamaClient.class, LlmClientConfig.class})
+    static class TestConfig {
+    }
+
+    @AfterAll
+    static void stopSimulator() {
+        SIMULATOR.close();
+    }
+
+    @Autowired
+    private OllamaClient ollamaClient;
+
+    @Test
+    void interactiveCallerOvertakesQueuedBatchWork() throws Exception {
+        List<String> completed = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<?>> requests = new CopyOnWriteArrayList<>();
+
+        // Two batch requests take both connections, two more queue behind them
+        for (int i = 1; i <= 4; i++) {
+            requests.add(generate("analysis", "batch-" + i, completed));
+        }
+        requests.add(generate("education", "education", completed));
+
+        CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        // The two running requests finish in either order; the next connection goes to the education request
+        assertThat(completed).hasSize(5);
+        assertThat(completed.subList(0, 2)).containsExactlyInAnyOrder("batch-1", "batch-2");
+        assertThat(completed.get(2)).isEqualTo("education");
+    }
+
+    private CompletableFuture<?> generate(String caller, String name, List<String> completed) {
+        Map<String, Object> request = Map.of(
+                "model", "simulated",
+                "prompt", name,
+                "stream", false);
+        return ollamaClient.generate(caller, SIMULATOR.getBaseUrl(), request)
+                .doOnSuccess(response -> completed.add(name))
+                .toFuture();
+    }
+
+    private static OllamaSimulator startSimulator() {
+        ResponseScript script = new ResponseScript()
+                // About one second each at 20 tokens per second
+                .respond("batch", "The batch analysis covers guidance, margins, demand and the order book in turn.")
+                .respond("education", "85");
+        try {
+            return OllamaSimulator.start(SimulatorConfig.builder()
+                    .port(0)
+                    .parallel(2)
+                    .tokensPerSecond(20)
+                    .firstTokenLatency(LatencyDistribution.fixed(Duration.ZERO))
+                    .script(script)
+                    .build());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -2,11 +2,15 @@ package kz.kbtu.newsservice.config;
 
 import kz.kbtu.common.entity.Country;
 import kz.kbtu.common.entity.EconomySector;
+import kz.kbtu.common.entity.RssFeed;
+import kz.kbtu.newsservice.prompt.ReferenceDataChangedEvent;
 import kz.kbtu.newsservice.repository.CountryRepository;
 import kz.kbtu.newsservice.repository.EconomySectorRepository;
+import kz.kbtu.newsservice.repository.RssFeedRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,12 +23,15 @@ public class DataInitializer implements CommandLineRunner {
 
     private final EconomySectorRepository sectorRepository;
     private final CountryRepository countryRepository;
+    private final RssFeedRepository feedRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public void run(String... args) {
         initializeSectors();
         initializeCommonCountries();
+        initializeFeeds();
     }
 
     private void initializeSectors() {
@@ -80,6 +87,7 @@ public class DataInitializer implements CommandLineRunner {
 
         sectorRepository.saveAll(sectors);
         log.info("Initialized {} economy sectors", sectors.size());
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent("sector seed"));
     }
 
     private void initializeCommonCountries() {
@@ -117,4 +125,33 @@ public class DataInitializer implements CommandLineRunner {
         countryRepository.saveAll(countries);
         log.info("Initialized {} countries", countries.size());
     }
-}
\ No newline at end of file
+
+    private void initializeFeeds() {
+        if (feedRepository.count() > 0) {
+            log.info("RSS feeds already initialized");
+            return;
+        }
+
+        log.info("Initializing RSS feed registry...");
+
+        List<RssFeed> feeds = List.of(
+            cnbcFeed("CNBC Technology", "19854910"),
+            cnbcFeed("CNBC Top News", "100003114"),
+            cnbcFeed("CNBC Business", "10001147"),
+            cnbcFeed("CNBC Earnings", "15839135"),
+            cnbcFeed("CNBC Economy", "20910258"),
+            cnbcFeed("CNBC Finance", "10000664"),
+            cnbcFeed("CNBC Investing", "15839069")
+        );
+
+        feedRepository.saveAll(feeds);
+        log.info("Initialized {} RSS feeds", feeds.size());
+    }
+
+    private RssFeed cnbcFeed(String name, String sectionId) {
+        return RssFeed.builder()
+            .name(name)
+            .url("https://www.cnbc.com/id/" + sectionId + "/device/rss/rss.html")
+            .build();
+    }
+}
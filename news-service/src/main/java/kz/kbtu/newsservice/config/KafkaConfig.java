@@ -0,0 +1,36 @@
+package kz.kbtu.newsservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+@Configuration
+@ConditionalOnProperty(name = "ingestion.kafka.enabled", havingValue = "true")
+public class KafkaConfig {
+
+    /**
+     * The partition count is the upper bound on consumers in the group, i.e. on news-service replicas doing analysis.
+     */
+    @Bean
+    public NewTopic articleIngestionTopic(@Value("${ingestion.kafka.topic:news.articles}") String topic,
+                                          @Value("${ingestion.kafka.partitions:12}") int partitions,
+                                          @Value("${ingestion.kafka.replicas:1}") int replicas) {
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+
+    /**
+     * Failed batches (e.g. Ollama down) are redelivered after a pause instead of being skipped.
+     */
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(@Value("${ingestion.kafka.retry-interval-ms:30000}") long retryIntervalMs) {
+        return new DefaultErrorHandler(new FixedBackOff(retryIntervalMs, FixedBackOff.UNLIMITED_ATTEMPTS));
+    }
+}
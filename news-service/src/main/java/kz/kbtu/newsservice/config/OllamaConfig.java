@@ -0,0 +1,10 @@
+package kz.kbtu.newsservice.config;
+
+import kz.kbtu.newsservice.llm.OllamaPoolProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(OllamaPoolProperties.class)
+public class OllamaConfig {
+}
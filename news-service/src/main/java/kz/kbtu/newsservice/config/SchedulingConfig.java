@@ -0,0 +1,28 @@
+package kz.kbtu.newsservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class SchedulingConfig {
+
+    /**
+     * Runs scrape jobs. Each job blocks until its articles have left the pipeline,
+     * so the pool size bounds how many jobs run at the same time; the rest wait in the queue.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor scrapeJobExecutor(
+            @Value("${jobs.max-concurrent:4}") int maxConcurrentJobs,
+            @Value("${jobs.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentJobs);
+        executor.setMaxPoolSize(maxConcurrentJobs);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("scrape-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,14 +1,19 @@
-// Add to NewsController.java
 package kz.kbtu.newsservice.controller;
 
-import kz.kbtu.newsservice.service.NewsProcessingService;
-import kz.kbtu.newsservice.service.OllamaAnalysisService;
+import jakarta.validation.Valid;
+import kz.kbtu.common.entity.RssFeed;
+import kz.kbtu.newsservice.dto.RssFeedRequestDto;
+import kz.kbtu.newsservice.jobs.ScrapeJob;
+import kz.kbtu.newsservice.service.FeedPollingService;
+import kz.kbtu.newsservice.service.ScrapeJobService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Map;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/news")
@@ -16,24 +21,64 @@ import java.util.Map;
 @Slf4j
 public class NewsController {
 
-    private final NewsProcessingService newsProcessingService;
-    private final OllamaAnalysisService ollamaService;
+    private final FeedPollingService feedPollingService;
+    private final ScrapeJobService scrapeJobService;
 
     @PostMapping("/scrape")
-    public ResponseEntity<String> scrapeNews() {
+    public ResponseEntity<?> scrapeNews() {
         log.info("Manual scrape triggered via API");
 
-        String cnbcTechFeed = "https://www.cnbc.com/id/19854910/device/rss/rss.html";
+        return feedPollingService.triggerAllFeeds()
+                .<ResponseEntity<?>>map(job -> ResponseEntity.accepted().body(job))
+                .orElse(ResponseEntity.status(409).body("All enabled feeds are already running"));
+    }
+
+    @PostMapping("/scrape/{feedId}")
+    public ResponseEntity<?> scrapeFeed(@PathVariable Long feedId) {
+        log.info("Manual scrape of feed {} triggered via API", feedId);
+
+        Optional<RssFeed> feed = feedPollingService.findFeed(feedId);
+        if (feed.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return feedPollingService.triggerFeed(feed.get())
+                .<ResponseEntity<?>>map(job -> ResponseEntity.accepted().body(job))
+                .orElse(ResponseEntity.status(409).body("Feed " + feedId + " is already running"));
+    }
 
-        new Thread(() -> {
-            newsProcessingService.processRssFeed(cnbcTechFeed);
-        }).start();
+    @GetMapping("/jobs")
+    public ResponseEntity<List<ScrapeJob>> getJobs() {
+        return ResponseEntity.ok(scrapeJobService.getJobs());
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ScrapeJob> getJob(@PathVariable String jobId) {
+        return ResponseEntity.of(scrapeJobService.getJob(jobId));
+    }
 
-        return ResponseEntity.ok("News scraping started. Check logs and 'scraped-articles' folder.");
+    @DeleteMapping("/jobs/{jobId}")
+    public ResponseEntity<ScrapeJob> cancelJob(@PathVariable String jobId) {
+        return ResponseEntity.of(scrapeJobService.cancel(jobId));
+    }
+
+    @GetMapping("/feeds")
+    public ResponseEntity<List<RssFeed>> getFeeds() {
+        return ResponseEntity.ok(feedPollingService.findAllFeeds());
+    }
+
+    @PostMapping("/feeds")
+    public ResponseEntity<RssFeed> registerFeed(@Valid @RequestBody RssFeedRequestDto request) {
+        return ResponseEntity.ok(feedPollingService.registerFeed(request));
     }
 
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("News Service is running!");
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<String> handleJobQueueFull(TaskRejectedException e) {
+        log.warn("Scrape job rejected: {}", e.getMessage());
+        return ResponseEntity.status(503).body("Too many scrape jobs queued, try again later");
+    }
+}
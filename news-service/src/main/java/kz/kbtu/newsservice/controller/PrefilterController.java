@@ -0,0 +1,37 @@
+package kz.kbtu.newsservice.controller;
+
+import kz.kbtu.newsservice.prefilter.PredictiveFilter;
+import kz.kbtu.newsservice.prefilter.PrefilterTrainer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/news/prefilter")
+@RequiredArgsConstructor
+@Slf4j
+public class PrefilterController {
+
+    private final PredictiveFilter predictiveFilter;
+    private final PrefilterTrainer trainer;
+
+    @GetMapping
+    public ResponseEntity<PredictiveFilter.Status> getStatus() {
+        return ResponseEntity.ok(predictiveFilter.getStatus());
+    }
+
+    /**
+     * Retrains the model from the stored analyses and starts routing with it, unless it misses too many
+     * predictive articles (see {@link PrefilterTrainer}).
+     */
+    @PostMapping("/train")
+    public ResponseEntity<?> train() {
+        log.info("Pre-filter training triggered via API");
+        try {
+            return ResponseEntity.ok(trainer.train());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package kz.kbtu.newsservice.controller;
+
+import kz.kbtu.newsservice.reanalysis.ReanalysisCriteria;
+import kz.kbtu.newsservice.reanalysis.ReanalysisJob;
+import kz.kbtu.newsservice.service.ReanalysisService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Collection;
+
+@RestController
+@RequestMapping("/api/news/reanalysis")
+@RequiredArgsConstructor
+@Slf4j
+public class ReanalysisController {
+
+    private final ReanalysisService reanalysisService;
+
+    @PostMapping
+    public ResponseEntity<?> start(@RequestBody(required = false) ReanalysisCriteria criteria) {
+        log.info("Re-analysis triggered via API: {}", criteria);
+
+        return reanalysisService.start(criteria != null ? criteria : new ReanalysisCriteria())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(409).body("Another re-analysis job is still running"));
+    }
+
+    @GetMapping
+    public ResponseEntity<Collection<ReanalysisJob>> getJobs() {
+        return ResponseEntity.ok(reanalysisService.getJobs());
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ReanalysisJob> getJob(@PathVariable String jobId) {
+        return ResponseEntity.of(reanalysisService.getJob(jobId));
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<ReanalysisJob> cancel(@PathVariable String jobId) {
+        return ResponseEntity.of(reanalysisService.cancel(jobId));
+    }
+}
@@ -0,0 +1,35 @@
+package kz.kbtu.newsservice.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Body of POST /api/news/feeds. Fields left null get the registry defaults.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RssFeedRequestDto {
+
+    @Size(max = 100)
+    private String name;
+
+    @NotBlank
+    @Size(max = 1000)
+    @Pattern(regexp = "https?://[^\\s/?#]+[^\\s]*", message = "must be an http(s) URL")
+    private String url;
+
+    @Min(60)
+    private Integer pollIntervalSeconds;
+
+    @PositiveOrZero
+    private Integer jitterSeconds;
+
+    private Boolean enabled;
+}
@@ -0,0 +1,162 @@
+package kz.kbtu.newsservice.fixtures;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+
+/**
+ * On-disk corpus of everything the pipeline reads from the network: RSS XML, article HTML,
+ * LLM responses and company lookups.
+ *
+ * <ul>
+ *   <li>{@code off} (default) – every call goes to the live source.</li>
+ *   <li>{@code record} – live calls, and each result is written to {@code fixtures.dir}.</li>
+ *   <li>{@code replay} – results are served from {@code fixtures.dir}, nothing touches the network.
+ *       A call without a recorded fixture fails.</li>
+ * </ul>
+ *
+ * Fixtures are stored as {@code <dir>/<kind>/<sha256(key)>.json}, each holding the original key
+ * next to the value so a corpus can be inspected by hand. Prompts that contain the current date
+ * use {@link #today()}, which replays the recording date so their keys still match.
+ */
+@Component
+@Slf4j
+public class FixtureCorpus {
+
+    public enum Mode {
+        OFF,
+        RECORD,
+        REPLAY
+    }
+
+    @FunctionalInterface
+    public interface Source<T, E extends Exception> {
+        T fetch() throws E;
+    }
+
+    private static final String MANIFEST = "corpus.json";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Value("${fixtures.mode:off}")
+    private Mode mode;
+
+    @Value("${fixtures.dir:fixtures}")
+    private Path dir;
+
+    private LocalDate recordedOn;
+
+    @PostConstruct
+    void init() throws IOException {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        log.info("Fixture corpus in {} mode at {}", mode, dir.toAbsolutePath());
+
+        Path manifest = dir.resolve(MANIFEST);
+        if (mode == Mode.RECORD) {
+            Files.createDirectories(dir);
+            ObjectNode node = objectMapper.createObjectNode().put("recordedOn", LocalDate.now().toString());
+            Files.writeString(manifest, objectMapper.writeValueAsString(node), StandardCharsets.UTF_8);
+        } else if (Files.exists(manifest)) {
+            recordedOn = LocalDate.parse(objectMapper.readTree(manifest.toFile()).path("recordedOn").asText());
+        }
+    }
+
+    public boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+
+    public boolean isReplaying() {
+        return mode == Mode.REPLAY;
+    }
+
+    /**
+     * The current date, or the date the corpus was recorded on when replaying.
+     */
+    public LocalDate today() {
+        return recordedOn != null ? recordedOn : LocalDate.now();
+    }
+
+    /**
+     * Returns the recorded value for {@code key} in replay mode, otherwise fetches it from the
+     * live source (and records it in record mode). A recorded {@code null} replays as {@code null}.
+     */
+    public <T, E extends Exception> T fetch(String kind, String key, Class<T> type, Source<T, E> live) throws E {
+        Path file = dir.resolve(kind).resolve(hash(key) + ".json");
+
+        if (mode == Mode.REPLAY) {
+            return read(file, key, type);
+        }
+
+        T value = live.fetch();
+        if (mode == Mode.RECORD) {
+            write(file, key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the recorded value for {@code key}, for callers that skip their live-source bookkeeping
+     * (leases, health) when {@link #isReplaying()}.
+     *
+     * @throws IllegalStateException if nothing was recorded for {@code key}
+     */
+    public <T> T replay(String kind, String key, Class<T> type) {
+        return read(dir.resolve(kind).resolve(hash(key) + ".json"), key, type);
+    }
+
+    private <T> T read(Path file, String key, Class<T> type) {
+        if (!Files.exists(file)) {
+            throw new IllegalStateException("No recorded fixture for " + key + " (" + file + ")");
+        }
+        try {
+            JsonNode value = objectMapper.readTree(file.toFile()).get("value");
+            return value == null || value.isNull() ? null : objectMapper.treeToValue(value, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read fixture " + file, e);
+        }
+    }
+
+    private void write(Path file, String key, Object value) {
+        try {
+            Files.createDirectories(file.getParent());
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("key", key);
+            node.set("value", objectMapper.valueToTree(value));
+
+            // Write-then-move so a concurrent replay never sees a half-written file
+            Path tmp = Files.createTempFile(file.getParent(), "fixture", ".tmp");
+            Files.writeString(tmp, objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(node),
+                    StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to record fixture {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String hash(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
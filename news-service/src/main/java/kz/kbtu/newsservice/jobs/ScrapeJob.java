@@ -0,0 +1,189 @@
+package kz.kbtu.newsservice.jobs;
+
+import kz.kbtu.newsservice.pipeline.PipelineRun;
+import kz.kbtu.newsservice.pipeline.Stage;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A scrape of one or more feeds, submitted manually or by the feed scheduler.
+ * Aggregates the {@link PipelineRun}s of its feeds for the progress endpoint.
+ */
+public class ScrapeJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        CANCELLED
+    }
+
+    private static final int MAX_ERRORS = 20;
+
+    @Getter
+    private final String id;
+
+    @Getter
+    private final String trigger;
+
+    @Getter
+    private final List<String> feeds;
+
+    @Getter
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    @Getter
+    private volatile LocalDateTime startedAt;
+
+    @Getter
+    private volatile LocalDateTime finishedAt;
+
+    @Getter
+    private volatile Status status = Status.QUEUED;
+
+    private final List<PipelineRun> runs = new CopyOnWriteArrayList<>();
+    private final List<String> feedErrors = new CopyOnWriteArrayList<>();
+    private final AtomicInteger feedsDone = new AtomicInteger();
+
+    public ScrapeJob(String id, String trigger, List<String> feeds) {
+        this.id = id;
+        this.trigger = trigger;
+        this.feeds = List.copyOf(feeds);
+    }
+
+    public int getFeedsDone() {
+        return feedsDone.get();
+    }
+
+    /**
+     * New articles found so far. Grows while feeds are still being fetched.
+     */
+    public int getArticlesTotal() {
+        return runs.stream().mapToInt(PipelineRun::getTotal).sum();
+    }
+
+    public int getArticlesDone() {
+        return runs.stream().mapToInt(PipelineRun::getCompleted).sum();
+    }
+
+    public int getArticlesInProgress() {
+        return getStages().values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Articles that are waiting for a pipeline slot or a stage worker.
+     */
+    public int getArticlesQueued() {
+        return Math.max(0, getArticlesTotal() - getArticlesDone() - getArticlesInProgress());
+    }
+
+    public int getSucceeded() {
+        return runs.stream().mapToInt(PipelineRun::getSucceeded).sum();
+    }
+
+    public int getSkipped() {
+        return runs.stream().mapToInt(PipelineRun::getSkipped).sum();
+    }
+
+    public int getFailed() {
+        return runs.stream().mapToInt(PipelineRun::getFailed).sum();
+    }
+
+    /**
+     * Articles currently being processed, per stage.
+     */
+    public Map<Stage, Integer> getStages() {
+        Map<Stage, Integer> stages = new EnumMap<>(Stage.class);
+        for (PipelineRun run : runs) {
+            run.getInStage().forEach((stage, count) -> stages.merge(stage, count, Integer::sum));
+        }
+        return stages;
+    }
+
+    public double getArticlesPerMinute() {
+        long elapsedMs = elapsed().toMillis();
+        return elapsedMs > 0 ? getArticlesDone() * 60_000.0 / elapsedMs : 0;
+    }
+
+    /**
+     * Remaining time for the articles found so far at the average rate, or null until the first one is done.
+     */
+    public Long getEtaSeconds() {
+        if (status == Status.COMPLETED || status == Status.CANCELLED) {
+            return 0L;
+        }
+        int done = getArticlesDone();
+        if (done == 0) {
+            return null;
+        }
+        return elapsed().toSeconds() * (getArticlesTotal() - done) / done;
+    }
+
+    public List<String> getErrors() {
+        List<String> errors = new ArrayList<>(feedErrors);
+        runs.forEach(run -> errors.addAll(run.getRecentErrors()));
+        return errors.size() > MAX_ERRORS ? errors.subList(errors.size() - MAX_ERRORS, errors.size()) : errors;
+    }
+
+    public boolean isCancelled() {
+        return status == Status.CANCELLED;
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    public void start() {
+        if (status == Status.QUEUED) {
+            status = Status.RUNNING;
+            startedAt = LocalDateTime.now();
+        }
+    }
+
+    public void addRun(PipelineRun run) {
+        runs.add(run);
+        if (isCancelled()) {
+            run.cancel();
+        }
+    }
+
+    public void feedDone(String feed, Exception error) {
+        if (error != null) {
+            feedErrors.add(feed + ": " + error.getMessage());
+        }
+        feedsDone.incrementAndGet();
+    }
+
+    /**
+     * Queued jobs never start; running ones skip articles that have not reached a stage worker yet.
+     */
+    public void cancel() {
+        if (isFinished()) {
+            return;
+        }
+        status = Status.CANCELLED;
+        runs.forEach(PipelineRun::cancel);
+    }
+
+    public void finish() {
+        if (status != Status.CANCELLED) {
+            status = Status.COMPLETED;
+        }
+        finishedAt = LocalDateTime.now();
+    }
+
+    private Duration elapsed() {
+        if (startedAt == null) {
+            return Duration.ZERO;
+        }
+        return Duration.between(startedAt, finishedAt != null ? finishedAt : LocalDateTime.now());
+    }
+}
@@ -0,0 +1,66 @@
+package kz.kbtu.newsservice.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kz.kbtu.common.dto.RssArticleDto;
+import kz.kbtu.newsservice.service.NewsProcessingService;
+import kz.kbtu.newsservice.service.OllamaAnalysisService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consumes RSS entries from the ingestion topic and runs them through the local pipeline
+ * (scrape, analyze, persist). Offsets are committed only after the whole batch has left
+ * the pipeline, so a crash leads to redelivery rather than lost articles; already persisted
+ * articles are filtered out by the dedup check on redelivery.
+ *
+ * Each news-service replica joins the same consumer group, so partitions (and the Ollama
+ * work behind them) are spread across replicas.
+ */
+@Component
+@ConditionalOnProperty(name = "ingestion.kafka.enabled", havingValue = "true")
+@Slf4j
+public class ArticleIngestionConsumer {
+
+    private final NewsProcessingService newsProcessingService;
+    private final OllamaAnalysisService ollamaService;
+    private final ObjectMapper objectMapper;
+
+    public ArticleIngestionConsumer(NewsProcessingService newsProcessingService,
+                                    OllamaAnalysisService ollamaService) {
+        this.newsProcessingService = newsProcessingService;
+        this.ollamaService = ollamaService;
+        this.objectMapper = ArticleIngestionPublisher.createObjectMapper();
+    }
+
+    @KafkaListener(
+            topics = "${ingestion.kafka.topic:news.articles}",
+            groupId = "${ingestion.kafka.group-id:news-service}",
+            concurrency = "${ingestion.kafka.consumer-concurrency:1}",
+            batch = "true")
+    public void onArticles(List<ConsumerRecord<String, String>> records) throws InterruptedException {
+        // Throwing makes the error handler redeliver the batch after a back-off instead of committing it
+        if (!ollamaService.isAvailable()) {
+            throw new IllegalStateException("Ollama is not available, batch of " + records.size() + " will be retried");
+        }
+
+        List<RssArticleDto> articles = new ArrayList<>();
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                articles.add(objectMapper.readValue(record.value(), RssArticleDto.class));
+            } catch (Exception e) {
+                log.error("Skipping malformed message at {}-{}@{}: {}",
+                        record.topic(), record.partition(), record.offset(), e.getMessage());
+            }
+        }
+
+        if (!articles.isEmpty()) {
+            newsProcessingService.processArticles(articles, "kafka batch of " + articles.size());
+        }
+    }
+}
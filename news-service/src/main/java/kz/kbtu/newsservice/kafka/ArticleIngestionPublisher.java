@@ -0,0 +1,59 @@
+package kz.kbtu.newsservice.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import kz.kbtu.common.dto.RssArticleDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes new RSS entries to the ingestion topic, keyed by externalId so that every
+ * message for the same article lands on the same partition (and thus the same consumer).
+ */
+@Component
+@ConditionalOnProperty(name = "ingestion.kafka.enabled", havingValue = "true")
+@Slf4j
+public class ArticleIngestionPublisher {
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final String topic;
+
+    public ArticleIngestionPublisher(KafkaTemplate<String, String> kafkaTemplate,
+                                     @Value("${ingestion.kafka.topic:news.articles}") String topic) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.objectMapper = createObjectMapper();
+    }
+
+    public void publish(RssArticleDto article) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(article);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize article '{}' for Kafka", article.getTitle(), e);
+            return;
+        }
+
+        kafkaTemplate.send(topic, article.getExternalId(), payload)
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.error("Failed to publish article '{}' to {}", article.getTitle(), topic, e);
+                    } else {
+                        log.debug("Published article {} to {}-{}", article.getExternalId(),
+                                topic, result.getRecordMetadata().partition());
+                    }
+                });
+    }
+
+    static ObjectMapper createObjectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
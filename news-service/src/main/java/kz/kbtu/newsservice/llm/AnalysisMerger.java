@@ -0,0 +1,158 @@
+package kz.kbtu.newsservice.llm;
+
+import kz.kbtu.common.dto.ArticleAnalysisDto;
+import kz.kbtu.common.dto.MarketEventDto;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Reduce step of chunked analysis: merges the analyses of the parts of one article into one.
+ *
+ * Entities are united in order of first mention. Predictions with the same scope, targets and
+ * direction are merged (highest confidence, united evidence). Sentiment is the majority vote,
+ * or MIXED when parts disagree in both directions.
+ */
+public final class AnalysisMerger {
+
+    private static final int MAX_SUMMARY_LENGTH = 2000;
+
+    private AnalysisMerger() {
+    }
+
+    public static ArticleAnalysisDto merge(List<ArticleAnalysisDto> parts) {
+        if (parts.size() == 1) {
+            return parts.getFirst();
+        }
+
+        return ArticleAnalysisDto.builder()
+                .summary(mergeSummaries(parts))
+                .sentiment(mergeSentiment(parts))
+                .companies(union(parts, ArticleAnalysisDto::getCompanies))
+                .countries(union(parts, ArticleAnalysisDto::getCountries))
+                .sectors(union(parts, ArticleAnalysisDto::getSectors))
+                .predictions(mergePredictions(parts))
+                .events(mergeEvents(parts))
+                .build();
+    }
+
+    private static String mergeSummaries(List<ArticleAnalysisDto> parts) {
+        StringBuilder summary = new StringBuilder();
+        for (ArticleAnalysisDto part : parts) {
+            String text = part.getSummary();
+            if (text == null || text.isBlank()) {
+                continue;
+            }
+            if (summary.length() + text.length() + 1 > MAX_SUMMARY_LENGTH) {
+                break;
+            }
+            if (!summary.isEmpty()) {
+                summary.append(' ');
+            }
+            summary.append(text.trim());
+        }
+        return summary.toString();
+    }
+
+    private static String mergeSentiment(List<ArticleAnalysisDto> parts) {
+        Map<String, Integer> votes = new HashMap<>();
+        for (ArticleAnalysisDto part : parts) {
+            if (part.getSentiment() != null) {
+                votes.merge(part.getSentiment().toUpperCase(), 1, Integer::sum);
+            }
+        }
+        if (votes.containsKey("POSITIVE") && votes.containsKey("NEGATIVE")) {
+            return "MIXED";
+        }
+        return votes.entrySet().stream()
+                .max(Map.Entry.<String, Integer>comparingByValue()
+                        // Prefer a signal over NEUTRAL on ties
+                        .thenComparing(e -> !e.getKey().equals("NEUTRAL")))
+                .map(Map.Entry::getKey)
+                .orElse("NEUTRAL");
+    }
+
+    private static List<String> union(List<ArticleAnalysisDto> parts,
+                                      Function<ArticleAnalysisDto, List<String>> field) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (ArticleAnalysisDto part : parts) {
+            List<String> list = field.apply(part);
+            if (list != null) {
+                list.forEach(value -> values.putIfAbsent(value.trim().toLowerCase(), value.trim()));
+            }
+        }
+        return new ArrayList<>(values.values());
+    }
+
+    private static List<ArticleAnalysisDto.PredictionDto> mergePredictions(List<ArticleAnalysisDto> parts) {
+        Map<String, ArticleAnalysisDto.PredictionDto> merged = new LinkedHashMap<>();
+        for (ArticleAnalysisDto part : parts) {
+            if (part.getPredictions() == null) {
+                continue;
+            }
+            for (ArticleAnalysisDto.PredictionDto prediction : part.getPredictions()) {
+                merged.merge(predictionKey(prediction), prediction, AnalysisMerger::mergePrediction);
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private static String predictionKey(ArticleAnalysisDto.PredictionDto prediction) {
+        Set<String> targets = new TreeSet<>();
+        if (prediction.getTargets() != null) {
+            prediction.getTargets().forEach(t -> targets.add(t.trim().toLowerCase()));
+        }
+        return prediction.getScope() + "|" + targets + "|" + prediction.getDirection();
+    }
+
+    private static ArticleAnalysisDto.PredictionDto mergePrediction(ArticleAnalysisDto.PredictionDto a,
+                                                                    ArticleAnalysisDto.PredictionDto b) {
+        ArticleAnalysisDto.PredictionDto stronger = confidence(b) > confidence(a) ? b : a;
+
+        List<String> evidence = new ArrayList<>(a.getEvidence() != null ? a.getEvidence() : List.of());
+        if (b.getEvidence() != null) {
+            b.getEvidence().stream().filter(e -> !evidence.contains(e)).forEach(evidence::add);
+        }
+
+        return ArticleAnalysisDto.PredictionDto.builder()
+                .scope(stronger.getScope())
+                .targets(stronger.getTargets())
+                .direction(stronger.getDirection())
+                .timeHorizon(stronger.getTimeHorizon())
+                .confidence(stronger.getConfidence())
+                .rationale(stronger.getRationale())
+                .countries(unionOf(a.getCountries(), b.getCountries()))
+                .sectors(unionOf(a.getSectors(), b.getSectors()))
+                .evidence(evidence)
+                .build();
+    }
+
+    private static int confidence(ArticleAnalysisDto.PredictionDto prediction) {
+        return prediction.getConfidence() != null ? prediction.getConfidence() : 0;
+    }
+
+    private static List<String> unionOf(List<String> a, List<String> b) {
+        LinkedHashSet<String> values = new LinkedHashSet<>();
+        if (a != null) {
+            values.addAll(a);
+        }
+        if (b != null) {
+            values.addAll(b);
+        }
+        return new ArrayList<>(values);
+    }
+
+    private static List<MarketEventDto> mergeEvents(List<ArticleAnalysisDto> parts) {
+        if (parts.stream().allMatch(p -> p.getEvents() == null)) {
+            return null;
+        }
+        Map<String, MarketEventDto> events = new LinkedHashMap<>();
+        for (ArticleAnalysisDto part : parts) {
+            if (part.getEvents() != null) {
+                part.getEvents().forEach(event -> events.putIfAbsent(
+                        event.getTitle().trim().toLowerCase() + "|" + event.getDate(), event));
+            }
+        }
+        return new ArrayList<>(events.values());
+    }
+}
@@ -0,0 +1,25 @@
+package kz.kbtu.newsservice.llm;
+
+/**
+ * Tells an interrupted LLM call apart from a backend failure, so shutting down never counts against a backend.
+ */
+public final class Interrupts {
+
+    private Interrupts() {
+    }
+
+    /**
+     * Reactor's {@code block()} reports an interrupt as a runtime exception caused by an {@link InterruptedException}.
+     */
+    public static boolean isInterrupt(Throwable e) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
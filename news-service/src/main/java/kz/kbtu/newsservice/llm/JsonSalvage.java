@@ -0,0 +1,111 @@
+package kz.kbtu.newsservice.llm;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Recovers the complete parts of JSON that was cut off mid-generation.
+ *
+ * For a root object, every top-level field whose value was closed is kept; of the array being written
+ * when the output ended, the complete elements are kept. For a root array, its complete elements are
+ * kept. Anything only partially generated is dropped, so the result never holds half an object.
+ */
+public final class JsonSalvage {
+
+    private JsonSalvage() {
+    }
+
+    /**
+     * @return the salvaged object or array, or empty if the text does not even start a JSON value
+     */
+    public static Optional<JsonNode> salvage(ObjectMapper objectMapper, String text) {
+        int start = firstJsonStart(text);
+        if (start < 0) {
+            return Optional.empty();
+        }
+        try (JsonParser parser = objectMapper.getFactory().createParser(text.substring(start))) {
+            JsonToken root = parser.nextToken();
+            if (root == JsonToken.START_ARRAY) {
+                ArrayNode array = objectMapper.createArrayNode();
+                readElements(objectMapper, parser, array);
+                return Optional.of(array);
+            }
+
+            ObjectNode object = objectMapper.createObjectNode();
+            while (nextToken(parser) == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = nextToken(parser);
+                if (value == null) {
+                    break;
+                }
+                if (value == JsonToken.START_ARRAY) {
+                    ArrayNode array = objectMapper.createArrayNode();
+                    boolean closed = readElements(objectMapper, parser, array);
+                    object.set(name, array);
+                    if (!closed) {
+                        break;
+                    }
+                } else {
+                    JsonNode node = readValue(objectMapper, parser);
+                    if (node == null) {
+                        break;
+                    }
+                    object.set(name, node);
+                }
+            }
+            return Optional.of(object);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Adds complete elements until the array closes or the input ends.
+     *
+     * @return whether the array was closed
+     */
+    private static boolean readElements(ObjectMapper objectMapper, JsonParser parser, ArrayNode array) {
+        JsonToken token;
+        while ((token = nextToken(parser)) != null && token != JsonToken.END_ARRAY) {
+            JsonNode element = readValue(objectMapper, parser);
+            if (element == null) {
+                return false;
+            }
+            array.add(element);
+        }
+        return token == JsonToken.END_ARRAY;
+    }
+
+    private static JsonNode readValue(ObjectMapper objectMapper, JsonParser parser) {
+        try {
+            return objectMapper.readTree(parser);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static JsonToken nextToken(JsonParser parser) {
+        try {
+            return parser.nextToken();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static int firstJsonStart(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '{' || c == '[') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
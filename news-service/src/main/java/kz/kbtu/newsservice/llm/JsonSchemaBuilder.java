@@ -0,0 +1,105 @@
+package kz.kbtu.newsservice.llm;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+
+/**
+ * Builds the JSON schema passed as Ollama's {@code format} from a DTO class, so the model is
+ * constrained to exactly the shape Jackson binds the response to.
+ *
+ * Fields map by type: strings, integral and decimal numbers, booleans, {@code List<T>} as arrays
+ * and any other class as a nested object. All fields are required unless excluded; value sets
+ * and nullability are added per field name and apply at every nesting level.
+ */
+public final class JsonSchemaBuilder {
+
+    private final Class<?> type;
+    private final boolean array;
+    private final Set<String> excluded = new HashSet<>();
+    private final Set<String> nullable = new HashSet<>();
+    private final Map<String, List<String>> enums = new HashMap<>();
+
+    private JsonSchemaBuilder(Class<?> type, boolean array) {
+        this.type = type;
+        this.array = array;
+    }
+
+    public static JsonSchemaBuilder of(Class<?> type) {
+        return new JsonSchemaBuilder(type, false);
+    }
+
+    public static JsonSchemaBuilder arrayOf(Class<?> type) {
+        return new JsonSchemaBuilder(type, true);
+    }
+
+    public JsonSchemaBuilder exclude(String... fields) {
+        excluded.addAll(List.of(fields));
+        return this;
+    }
+
+    public JsonSchemaBuilder nullable(String... fields) {
+        nullable.addAll(List.of(fields));
+        return this;
+    }
+
+    public JsonSchemaBuilder enumValues(String field, String... values) {
+        enums.put(field, List.of(values));
+        return this;
+    }
+
+    public Map<String, Object> build() {
+        Map<String, Object> schema = objectSchema(type);
+        return array ? Map.of("type", "array", "items", schema) : schema;
+    }
+
+    private Map<String, Object> objectSchema(Class<?> cls) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (Field field : cls.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || excluded.contains(field.getName())) {
+                continue;
+            }
+            Map<String, Object> property = new LinkedHashMap<>(typeSchema(field.getGenericType()));
+            List<String> values = enums.get(field.getName());
+            if (values != null) {
+                property.put("enum", values);
+            }
+            if (nullable.contains(field.getName())) {
+                property.put("type", List.of(property.get("type"), "null"));
+            }
+            properties.put(field.getName(), property);
+        }
+
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("type", "object");
+        schema.put("properties", properties);
+        schema.put("required", List.copyOf(properties.keySet()));
+        return schema;
+    }
+
+    private Map<String, Object> typeSchema(Type type) {
+        if (type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw
+                && Collection.class.isAssignableFrom(raw)) {
+            return Map.of("type", "array", "items", typeSchema(parameterized.getActualTypeArguments()[0]));
+        }
+        if (!(type instanceof Class<?> cls)) {
+            throw new IllegalArgumentException("Unsupported field type for schema: " + type);
+        }
+        if (cls == String.class || cls.isEnum()) {
+            return Map.of("type", "string");
+        }
+        if (cls == Integer.class || cls == int.class || cls == Long.class || cls == long.class) {
+            return Map.of("type", "integer");
+        }
+        if (Number.class.isAssignableFrom(cls) || cls == double.class || cls == float.class) {
+            return Map.of("type", "number");
+        }
+        if (cls == Boolean.class || cls == boolean.class) {
+            return Map.of("type", "boolean");
+        }
+        return objectSchema(cls);
+    }
+}
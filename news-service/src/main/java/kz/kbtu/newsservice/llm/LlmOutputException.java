@@ -0,0 +1,28 @@
+package kz.kbtu.newsservice.llm;
+
+import lombok.Getter;
+
+/**
+ * Thrown while a generation is streaming when its output is no longer worth waiting for.
+ * Throwing it from the stream cancels the request, which makes Ollama stop generating.
+ */
+@Getter
+public class LlmOutputException extends RuntimeException {
+
+    public enum Reason {
+        MALFORMED,
+        REPETITION
+    }
+
+    private final Reason reason;
+
+    public LlmOutputException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public LlmOutputException(Reason reason, String message, Throwable cause) {
+        super(message, cause);
+        this.reason = reason;
+    }
+}
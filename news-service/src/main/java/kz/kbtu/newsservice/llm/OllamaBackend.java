@@ -0,0 +1,71 @@
+package kz.kbtu.newsservice.llm;
+
+import kz.kbtu.newsservice.throttle.AimdLimiter;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One Ollama host: its URL, its own AIMD concurrency limit and its health.
+ * Requests themselves go through the shared {@link kz.kbtu.common.llm.OllamaClient}.
+ * A backend is taken out of rotation after {@code failureThreshold} consecutive failed requests
+ * and put back once a health probe succeeds.
+ */
+@Slf4j
+public class OllamaBackend {
+
+    @Getter
+    private final String url;
+    @Getter
+    private final AimdLimiter limiter;
+    private final int failureThreshold;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile boolean healthy = true;
+
+    public OllamaBackend(String url, AimdLimiter limiter, int failureThreshold) {
+        this.url = url;
+        this.limiter = limiter;
+        this.failureThreshold = Math.max(1, failureThreshold);
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * Share of this backend's current limit that is in use; the pool routes to the lowest.
+     */
+    public double getLoad() {
+        return limiter.getInFlight() / (double) Math.max(1, limiter.getLimit());
+    }
+
+    void recordSuccess() {
+        consecutiveFailures.set(0);
+        markHealthy();
+    }
+
+    void recordFailure(String error) {
+        int failures = consecutiveFailures.incrementAndGet();
+        if (healthy && failures >= failureThreshold) {
+            healthy = false;
+            log.warn("Ollama backend {} marked unhealthy after {} consecutive failures: {}", url, failures, error);
+        }
+    }
+
+    void markHealthy() {
+        if (!healthy) {
+            consecutiveFailures.set(0);
+            healthy = true;
+            log.info("Ollama backend {} is healthy again", url);
+        }
+    }
+
+    void markUnhealthy(String error) {
+        if (healthy) {
+            healthy = false;
+            log.warn("Ollama backend {} marked unhealthy: {}", url, error);
+        }
+    }
+}
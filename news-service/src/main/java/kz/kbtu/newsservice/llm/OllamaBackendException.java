@@ -0,0 +1,17 @@
+package kz.kbtu.newsservice.llm;
+
+/**
+ * A generation failed on the way to or inside Ollama: connection error, timeout, HTTP error or a response
+ * without output. Says nothing about the article, so callers retry the work later (the pipeline hands it to
+ * recovery) rather than record a failed result. Output that arrives but is unusable is not reported this way.
+ */
+public class OllamaBackendException extends RuntimeException {
+
+    public OllamaBackendException(String message) {
+        super(message);
+    }
+
+    public OllamaBackendException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,241 @@
+package kz.kbtu.newsservice.llm;
+
+import kz.kbtu.common.llm.LlmPriority;
+import kz.kbtu.common.llm.OllamaClient;
+import kz.kbtu.newsservice.throttle.AimdLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Routes Ollama requests across the configured backends.
+ *
+ * Every backend has its own AIMD limit, so a fast GPU host settles at a higher parallelism than
+ * a slow one. A request goes to the healthy backend with the lowest share of its limit in use and
+ * waits while all of them are at their limit. Backends that keep failing are skipped until
+ * {@link OllamaHealthMonitor} reaches them again.
+ *
+ * Waiters are served by {@link LlmPriority}: a batch request does not take a free slot while an
+ * interactive one is waiting, unless {@code interactive-weight} interactive requests have overtaken it
+ * in a row. Until then it also leaves {@code reserved-interactive} slots of each backend's limit free
+ * (but may always use one). Behind the pool, {@link OllamaClient} orders requests waiting for a connection
+ * by their caller's class as well.
+ */
+@Component
+@Slf4j
+public class OllamaBackendPool {
+
+    // Waiters also wake up periodically, so a backend that recovers is picked up without a release
+    private static final long RECHECK_MILLIS = 1000;
+
+    private final List<OllamaBackend> backends = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition capacityChanged = lock.newCondition();
+    private final OllamaClient ollamaClient;
+    private final Duration probeTimeout;
+    private final int reservedInteractive;
+    private final int interactiveWeight;
+
+    // Guarded by lock
+    private int waitingInteractive;
+    private int waitingBatch;
+    private int interactiveStreak;
+
+    public OllamaBackendPool(OllamaPoolProperties properties,
+                             OllamaClient ollamaClient,
+                             @Value("${ollama.concurrency.initial-limit:2}") int initialLimit,
+                             @Value("${ollama.concurrency.min-limit:1}") int minLimit,
+                             @Value("${ollama.concurrency.max-limit:8}") int maxLimit,
+                             @Value("${ollama.concurrency.backoff-ratio:0.7}") double backoffRatio,
+                             @Value("${ollama.concurrency.latency-tolerance:2.0}") double latencyTolerance,
+                             @Value("${ollama.health.failure-threshold:3}") int failureThreshold,
+                             @Value("${ollama.health.probe-timeout-ms:5000}") long probeTimeoutMs,
+                             @Value("${ollama.scheduling.reserved-interactive:1}") int reservedInteractive,
+                             @Value("${ollama.scheduling.interactive-weight:4}") int interactiveWeight) {
+        this.ollamaClient = ollamaClient;
+        this.probeTimeout = Duration.ofMillis(probeTimeoutMs);
+        this.reservedInteractive = Math.max(0, reservedInteractive);
+        this.interactiveWeight = Math.max(1, interactiveWeight);
+
+        List<OllamaPoolProperties.Backend> configured = properties.backends() != null && !properties.backends().isEmpty()
+                ? properties.backends()
+                : List.of(new OllamaPoolProperties.Backend(properties.url(), null));
+
+        for (OllamaPoolProperties.Backend backend : configured) {
+            if (backend.url() == null || backend.url().isBlank()) {
+                throw new IllegalStateException("Ollama backend without url; set ollama.url or ollama.backends[].url");
+            }
+            int backendMax = backend.maxConcurrency() != null ? backend.maxConcurrency() : maxLimit;
+            AimdLimiter limiter = new AimdLimiter(Math.min(initialLimit, backendMax), minLimit, backendMax,
+                    backoffRatio, latencyTolerance);
+            backends.add(new OllamaBackend(backend.url(), limiter, failureThreshold));
+            log.info("Ollama backend {}: initial={}, min={}, max={}", backend.url(),
+                    Math.min(initialLimit, backendMax), minLimit, backendMax);
+        }
+    }
+
+    /**
+     * Blocks until one of the healthy backends has capacity for a request of the given priority
+     * and returns a lease on it. The lease must be completed exactly once.
+     *
+     * @throws OllamaUnavailableException if no backend is healthy
+     */
+    public Lease acquire(LlmPriority priority) throws InterruptedException {
+        boolean interactive = priority == LlmPriority.INTERACTIVE;
+        lock.lockInterruptibly();
+        try {
+            if (interactive) {
+                waitingInteractive++;
+            } else {
+                waitingBatch++;
+            }
+            try {
+                while (true) {
+                    List<OllamaBackend> candidates = backends.stream()
+                            .filter(OllamaBackend::isHealthy)
+                            .sorted(Comparator.comparingDouble(OllamaBackend::getLoad))
+                            .toList();
+                    if (candidates.isEmpty()) {
+                        throw new OllamaUnavailableException("No healthy Ollama backend");
+                    }
+                    Lease lease = interactive ? tryLeaseInteractive(candidates) : tryLeaseBatch(candidates);
+                    if (lease != null) {
+                        return lease;
+                    }
+                    capacityChanged.await(RECHECK_MILLIS, TimeUnit.MILLISECONDS);
+                }
+            } finally {
+                if (interactive) {
+                    waitingInteractive--;
+                    // Batch waiters that held back for this request may go now
+                    capacityChanged.signalAll();
+                } else {
+                    waitingBatch--;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lease tryLeaseInteractive(List<OllamaBackend> candidates) {
+        for (OllamaBackend backend : candidates) {
+            AimdLimiter.Permit permit = backend.getLimiter().tryAcquire();
+            if (permit != null) {
+                // Only interactive requests that overtake waiting batch work count towards the weight
+                interactiveStreak = waitingBatch > 0 ? interactiveStreak + 1 : 0;
+                return new Lease(backend, permit);
+            }
+        }
+        return null;
+    }
+
+    private Lease tryLeaseBatch(List<OllamaBackend> candidates) {
+        boolean batchDue = interactiveStreak >= interactiveWeight;
+        if (waitingInteractive > 0 && !batchDue) {
+            return null;
+        }
+        for (OllamaBackend backend : candidates) {
+            AimdLimiter limiter = backend.getLimiter();
+            // Once batch work is due its turn it may use the reserve too, otherwise interactive load could starve it
+            if (!batchDue && limiter.getInFlight() >= Math.max(1, limiter.getLimit() - reservedInteractive)) {
+                continue;
+            }
+            AimdLimiter.Permit permit = limiter.tryAcquire();
+            if (permit != null) {
+                interactiveStreak = 0;
+                return new Lease(backend, permit);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Probes every backend and updates its health. Called by {@link OllamaHealthMonitor}.
+     *
+     * @return true if at least one backend answered
+     */
+    boolean probeAll() {
+        boolean available = false;
+        for (OllamaBackend backend : backends) {
+            available |= probe(backend);
+        }
+        return available;
+    }
+
+    public List<OllamaBackend> getBackends() {
+        return List.copyOf(backends);
+    }
+
+    private boolean probe(OllamaBackend backend) {
+        try {
+            ollamaClient.ping(backend.getUrl(), probeTimeout).block();
+            backend.markHealthy();
+            signalCapacity();
+            return true;
+        } catch (Exception e) {
+            backend.markUnhealthy(e.getMessage());
+            return false;
+        }
+    }
+
+    private void signalCapacity() {
+        lock.lock();
+        try {
+            capacityChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A running request on one backend.
+     */
+    public final class Lease {
+        private final OllamaBackend backend;
+        private final AimdLimiter.Permit permit;
+
+        private Lease(OllamaBackend backend, AimdLimiter.Permit permit) {
+            this.backend = backend;
+            this.permit = permit;
+        }
+
+        public String url() {
+            return backend.getUrl();
+        }
+
+        /**
+         * @param tokens number of generated tokens, see {@link AimdLimiter.Permit#success}
+         */
+        public void success(int tokens) {
+            permit.success(tokens);
+            backend.recordSuccess();
+            signalCapacity();
+        }
+
+        /**
+         * Timeouts and backend errors: lowers the backend's limit and counts towards marking it unhealthy.
+         */
+        public void failure(String error) {
+            permit.failure();
+            backend.recordFailure(error);
+            signalCapacity();
+        }
+
+        /**
+         * Ends the request without a sample, see {@link AimdLimiter.Permit#release}.
+         */
+        public void release() {
+            permit.release();
+            signalCapacity();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package kz.kbtu.newsservice.llm;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Circuit breaker around Ollama generations.
+ *
+ * CLOSED: requests go through; {@code failure-threshold} consecutive failures open the circuit.
+ * OPEN: requests fail immediately with {@link OllamaUnavailableException}. The circuit stays open
+ * for at least {@code open-ms} and until {@link OllamaHealthMonitor} sees a healthy backend again.
+ * HALF_OPEN: requests go through again; the first success closes the circuit, the first failure
+ * opens it again.
+ *
+ * Every transition is published as an {@link OllamaCircuitEvent}.
+ */
+@Component
+@Slf4j
+public class OllamaCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public OllamaCircuitBreaker(ApplicationEventPublisher eventPublisher,
+                                @Value("${ollama.circuit.failure-threshold:5}") int failureThreshold,
+                                @Value("${ollama.circuit.open-ms:30000}") long openMillis) {
+        this.eventPublisher = eventPublisher;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * @throws OllamaUnavailableException while the circuit is open
+     */
+    public void checkPermitted() {
+        if (getState() == State.OPEN) {
+            throw new OllamaUnavailableException("Ollama circuit is open");
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public boolean isOpen() {
+        return getState() == State.OPEN;
+    }
+
+    public void recordSuccess() {
+        synchronized (this) {
+            consecutiveFailures = 0;
+            if (state == State.CLOSED) {
+                return;
+            }
+            state = State.CLOSED;
+        }
+        log.info("Ollama circuit closed");
+        eventPublisher.publishEvent(new OllamaCircuitEvent(State.CLOSED, "generation succeeded"));
+    }
+
+    public void recordFailure(String error) {
+        int failures;
+        synchronized (this) {
+            failures = ++consecutiveFailures;
+            if (state == State.OPEN || (state == State.CLOSED && failures < failureThreshold)) {
+                return;
+            }
+        }
+        open(failures + " consecutive failures, last: " + error);
+    }
+
+    /**
+     * Opens the circuit regardless of the failure count, e.g. when no backend is healthy.
+     */
+    public void open(String reason) {
+        synchronized (this) {
+            if (state == State.OPEN) {
+                return;
+            }
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+        log.warn("Ollama circuit opened: {}", reason);
+        eventPublisher.publishEvent(new OllamaCircuitEvent(State.OPEN, reason));
+    }
+
+    /**
+     * Called by the health monitor after each round of probes. A failed round keeps the circuit open;
+     * a healthy one lets trial requests through once the circuit has been open for {@code open-ms}.
+     */
+    void onHealthCheck(boolean available) {
+        if (!available) {
+            open("no healthy Ollama backend");
+            return;
+        }
+        synchronized (this) {
+            if (state != State.OPEN || System.currentTimeMillis() - openedAt < openMillis) {
+                return;
+            }
+            state = State.HALF_OPEN;
+        }
+        log.info("Ollama is reachable again, circuit half-open");
+        eventPublisher.publishEvent(new OllamaCircuitEvent(State.HALF_OPEN, "health check succeeded"));
+    }
+}
@@ -0,0 +1,7 @@
+package kz.kbtu.newsservice.llm;
+
+/**
+ * Published by {@link OllamaCircuitBreaker} on every state change.
+ */
+public record OllamaCircuitEvent(OllamaCircuitBreaker.State state, String reason) {
+}
@@ -0,0 +1,47 @@
+package kz.kbtu.newsservice.llm;
+
+import kz.kbtu.newsservice.fixtures.FixtureCorpus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Probes all Ollama backends in the background and caches the result, so callers that only need
+ * to know whether Ollama is up (feed runs, Kafka batches) never wait for a probe themselves.
+ * Each round also drives {@link OllamaCircuitBreaker}: no healthy backend opens the circuit,
+ * a healthy round lets it try again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OllamaHealthMonitor {
+
+    private final OllamaBackendPool backendPool;
+    private final OllamaCircuitBreaker circuitBreaker;
+    private final FixtureCorpus fixtures;
+
+    // Optimistic until the first round; a wrong guess only costs the first requests
+    private volatile boolean available = true;
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${ollama.health.check-interval-ms:15000}")
+    void check() {
+        if (fixtures.isReplaying()) {
+            // Responses come from recorded fixtures; there is no Ollama to probe
+            return;
+        }
+        boolean nowAvailable = backendPool.probeAll();
+        if (nowAvailable != available) {
+            log.info("Ollama is {}", nowAvailable ? "available again" : "not available");
+        }
+        available = nowAvailable;
+        circuitBreaker.onHealthCheck(nowAvailable);
+    }
+
+    /**
+     * @return whether at least one backend answered the last probe and the circuit lets requests through
+     */
+    public boolean isAvailable() {
+        return available && !circuitBreaker.isOpen();
+    }
+}
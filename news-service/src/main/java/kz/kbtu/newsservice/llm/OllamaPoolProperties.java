@@ -0,0 +1,20 @@
+package kz.kbtu.newsservice.llm;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Ollama endpoints used by this service. Without {@code ollama.backends} the pool consists of
+ * {@code ollama.url} alone.
+ *
+ * @param url      single-backend fallback
+ * @param backends inference hosts; {@code max-concurrency} caps the AIMD limit of one host
+ *                 (defaults to {@code ollama.concurrency.max-limit})
+ */
+@ConfigurationProperties(prefix = "ollama")
+public record OllamaPoolProperties(String url, List<Backend> backends) {
+
+    public record Backend(String url, Integer maxConcurrency) {
+    }
+}
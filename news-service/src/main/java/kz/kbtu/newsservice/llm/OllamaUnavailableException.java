@@ -0,0 +1,16 @@
+package kz.kbtu.newsservice.llm;
+
+/**
+ * Thrown instead of calling Ollama while the circuit is open or no backend is healthy.
+ * Callers should set the work aside and retry it later rather than record a failed result.
+ */
+public class OllamaUnavailableException extends OllamaBackendException {
+
+    public OllamaUnavailableException(String message) {
+        super(message);
+    }
+
+    public OllamaUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,57 @@
+package kz.kbtu.newsservice.llm;
+
+/**
+ * Detects a generation that is stuck in a loop: the tail of the output consists of the same
+ * block of text repeated back to back, at least {@code repeats} times and over at least
+ * {@code minSpan} characters (so short runs like indentation do not count). Checked every
+ * {@code checkInterval} characters to keep the cost negligible next to generation itself.
+ */
+public class RepetitionDetector {
+
+    private final int minPeriod;
+    private final int maxPeriod;
+    private final int repeats;
+    private final int minSpan;
+    private final int checkInterval;
+    private int sinceLastCheck;
+
+    public RepetitionDetector(int minPeriod, int maxPeriod, int repeats, int minSpan, int checkInterval) {
+        this.minPeriod = minPeriod;
+        this.maxPeriod = maxPeriod;
+        this.repeats = repeats;
+        this.minSpan = minSpan;
+        this.checkInterval = checkInterval;
+    }
+
+    /**
+     * @param text     everything generated so far
+     * @param appended number of characters added since the last call
+     * @return the length of the repeating block, or 0 if the tail does not repeat
+     */
+    public int check(CharSequence text, int appended) {
+        sinceLastCheck += appended;
+        if (sinceLastCheck < checkInterval) {
+            return 0;
+        }
+        sinceLastCheck = 0;
+
+        int length = text.length();
+        for (int period = minPeriod; period <= maxPeriod && period * repeats <= length; period++) {
+            int span = Math.max(period * repeats, minSpan);
+            if (span <= length && tailRepeats(text, length, period, span)) {
+                return period;
+            }
+        }
+        return 0;
+    }
+
+    private boolean tailRepeats(CharSequence text, int length, int period, int span) {
+        int start = length - span;
+        for (int i = start + period; i < length; i++) {
+            if (text.charAt(i) != text.charAt(i - period)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,161 @@
+package kz.kbtu.newsservice.llm;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/**
+ * Groups requests made concurrently by different threads into packs that are handled by one call.
+ *
+ * The first request opens a pack and waits up to {@code maxWait} for others to join. The pack is closed
+ * when that time is up, when it holds {@code maxItems} items or {@code maxWeight} weight, or when the next
+ * request would not fit; that request opens the next pack. It is also closed as soon as every thread that
+ * could still submit (see {@code submitters}) is in it, so a request that arrives alone does not wait.
+ * The thread that opened a pack runs the handler for it, the others block until their result is in.
+ *
+ * @param <T> request
+ * @param <R> result of one request
+ */
+public final class RequestPacker<T, R> {
+
+    @FunctionalInterface
+    public interface Handler<T, R> {
+
+        /**
+         * @return one result per item, in the same order
+         */
+        List<R> handle(List<T> items) throws InterruptedException;
+    }
+
+    private final int maxWeight;
+    private final int maxItems;
+    private final long maxWaitNanos;
+    private final Handler<T, R> handler;
+    private final IntSupplier submitters;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition closed = lock.newCondition();
+    private Pack open;
+
+    /**
+     * @param submitters number of threads that are submitting or may submit soon, including those in the open
+     *                   pack; call {@link #recheck} when it drops
+     */
+    public RequestPacker(int maxWeight, int maxItems, Duration maxWait, IntSupplier submitters, Handler<T, R> handler) {
+        this.maxWeight = maxWeight;
+        this.maxItems = Math.max(1, maxItems);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.submitters = submitters;
+        this.handler = handler;
+    }
+
+    /**
+     * Adds the request to the open pack and returns its result once the pack was handled.
+     * Exceptions thrown by the handler are rethrown to every request of the pack.
+     */
+    public R submit(T item, int weight) throws InterruptedException {
+        Pack pack;
+        CompletableFuture<R> result = new CompletableFuture<>();
+        boolean leader;
+
+        lock.lock();
+        try {
+            if (open != null && !open.fits(weight)) {
+                close(open);
+            }
+            leader = open == null;
+            if (leader) {
+                open = new Pack();
+            }
+            pack = open;
+            pack.items.add(item);
+            pack.results.add(result);
+            pack.weight += weight;
+            if (pack.items.size() >= maxItems || pack.weight >= maxWeight) {
+                close(pack);
+            }
+
+            if (leader) {
+                long remaining = maxWaitNanos;
+                try {
+                    while (!pack.closed && remaining > 0 && submitters.getAsInt() > pack.items.size()) {
+                        remaining = closed.awaitNanos(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    // The others in the pack still need their results
+                    close(pack);
+                    Thread.ofVirtual().name("request-pack").start(() -> run(pack));
+                    throw e;
+                }
+                close(pack);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (leader) {
+            run(pack);
+        }
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Pack failed", e.getCause());
+        }
+    }
+
+    /**
+     * Lets the thread waiting for its pack to fill check again whether anyone else could still join.
+     */
+    public void recheck() {
+        lock.lock();
+        try {
+            closed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void close(Pack pack) {
+        pack.closed = true;
+        if (open == pack) {
+            open = null;
+        }
+        closed.signalAll();
+    }
+
+    private void run(Pack pack) {
+        try {
+            List<R> results = handler.handle(pack.items);
+            for (int i = 0; i < pack.results.size(); i++) {
+                pack.results.get(i).complete(results.get(i));
+            }
+        } catch (Throwable e) {
+            pack.results.forEach(r -> r.completeExceptionally(e));
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private final class Pack {
+        final List<T> items = new ArrayList<>();
+        final List<CompletableFuture<R>> results = new ArrayList<>();
+        int weight;
+        boolean closed;
+
+        boolean fits(int additional) {
+            return items.size() < maxItems && weight + additional <= maxWeight;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package kz.kbtu.newsservice.llm;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incremental parser for JSON that an LLM is still generating, fed one token at a time.
+ *
+ * Uses Jackson's non-blocking parser, so invalid JSON is detected at the first bad token
+ * rather than after the whole generation. Every element of a top-level array listed in
+ * {@code streamedArrays} (e.g. "predictions") is handed to the listener as soon as it closes;
+ * when the root value itself is an array, its elements are reported under {@link #ROOT_ARRAY}.
+ * A leading Markdown code fence is skipped; anything after the root value is ignored.
+ * Throws {@link LlmOutputException} when the output is malformed or stuck in a loop.
+ */
+public class StreamingJsonParser {
+
+    @FunctionalInterface
+    public interface ElementListener {
+        void onElement(String arrayName, JsonNode element);
+    }
+
+    public static final String ROOT_ARRAY = "";
+
+    // Identical elements beyond this count mean the model is looping through the same objects
+    private static final int MAX_IDENTICAL_ELEMENTS = 2;
+
+    private final ObjectMapper objectMapper;
+    private final Set<String> streamedArrays;
+    private final ElementListener listener;
+    private final RepetitionDetector repetitionDetector = new RepetitionDetector(8, 400, 3, 240, 128);
+
+    private final JsonParser parser;
+    private final StringBuilder text = new StringBuilder();
+    private final StringBuilder preamble = new StringBuilder();
+    private final Map<String, Integer> elementCounts = new HashMap<>();
+
+    private boolean started;
+    private boolean complete;
+    private TokenBuffer capture;
+    private String captureArray;
+    private int captureDepth;
+
+    public StreamingJsonParser(ObjectMapper objectMapper, Set<String> streamedArrays, ElementListener listener) {
+        this.objectMapper = objectMapper;
+        this.streamedArrays = streamedArrays;
+        this.listener = listener;
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create non-blocking JSON parser", e);
+        }
+    }
+
+    /**
+     * Feeds the next piece of generated text.
+     */
+    public void feed(String chunk) {
+        if (chunk == null || chunk.isEmpty()) {
+            return;
+        }
+        text.append(chunk);
+
+        int period = repetitionDetector.check(text, chunk.length());
+        if (period > 0) {
+            throw new LlmOutputException(LlmOutputException.Reason.REPETITION,
+                    "Output repeats a " + period + "-character block after " + text.length() + " characters");
+        }
+
+        if (complete) {
+            return;
+        }
+        if (!started) {
+            chunk = stripPreamble(chunk);
+            if (chunk == null) {
+                return;
+            }
+        }
+        parse(chunk);
+    }
+
+    /**
+     * Everything generated so far, including any code fence.
+     */
+    public String getText() {
+        return text.toString();
+    }
+
+    /**
+     * Whether the root JSON value has been closed.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Buffers leading whitespace and a code fence line; returns the part of the chunk where JSON starts,
+     * or null while still inside the preamble.
+     */
+    private String stripPreamble(String chunk) {
+        preamble.append(chunk);
+        String pending = preamble.toString().stripLeading();
+        if (pending.isEmpty()) {
+            return null;
+        }
+        if (pending.startsWith("`")) {
+            int newline = pending.indexOf('\n');
+            if (newline < 0) {
+                if (pending.length() > 16) {
+                    throw malformed("Unterminated code fence: " + pending);
+                }
+                return null;
+            }
+            pending = pending.substring(newline + 1).stripLeading();
+            if (pending.isEmpty()) {
+                preamble.setLength(0);
+                preamble.append("\n");
+                return null;
+            }
+        }
+        char first = pending.charAt(0);
+        if (first != '{' && first != '[') {
+            throw malformed("Output does not start with JSON: " + abbreviate(pending));
+        }
+        started = true;
+        preamble.setLength(0);
+        return pending;
+    }
+
+    private void parse(String chunk) {
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        ByteArrayFeeder feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                onToken(token);
+                if (complete) {
+                    return;
+                }
+            }
+        } catch (LlmOutputException e) {
+            throw e;
+        } catch (JsonProcessingException e) {
+            throw new LlmOutputException(LlmOutputException.Reason.MALFORMED,
+                    "Malformed JSON after " + text.length() + " characters: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to parse streamed JSON", e);
+        }
+    }
+
+    private void onToken(JsonToken token) throws IOException {
+        if (capture != null) {
+            capture.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                captureDepth++;
+            } else if (token.isStructEnd() && --captureDepth == 0) {
+                emit();
+            }
+        } else if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            String arrayName = streamedArrayOf(parser.getParsingContext().getParent());
+            if (arrayName != null) {
+                capture = new TokenBuffer(parser);
+                captureArray = arrayName;
+                captureDepth = 1;
+                capture.copyCurrentEvent(parser);
+            }
+        }
+
+        if (token.isStructEnd() && parser.getParsingContext().inRoot()) {
+            complete = true;
+        }
+    }
+
+    /**
+     * Returns the array's field name if {@code context} is a streamed array directly under the root object,
+     * or {@link #ROOT_ARRAY} if it is the root value.
+     */
+    private String streamedArrayOf(JsonStreamContext context) {
+        if (context == null || !context.inArray()) {
+            return null;
+        }
+        JsonStreamContext owner = context.getParent();
+        if (owner != null && owner.inRoot()) {
+            return streamedArrays.contains(ROOT_ARRAY) ? ROOT_ARRAY : null;
+        }
+        if (owner == null || !owner.inObject() || !owner.getParent().inRoot()) {
+            return null;
+        }
+        String name = owner.getCurrentName();
+        return name != null && streamedArrays.contains(name) ? name : null;
+    }
+
+    private void emit() throws IOException {
+        JsonNode element;
+        try (JsonParser bufferedParser = capture.asParser()) {
+            element = objectMapper.readTree(bufferedParser);
+        }
+        String array = captureArray;
+        capture = null;
+        captureArray = null;
+
+        int count = elementCounts.merge(array + element, 1, Integer::sum);
+        if (count > MAX_IDENTICAL_ELEMENTS) {
+            throw new LlmOutputException(LlmOutputException.Reason.REPETITION,
+                    "Same " + array + " element generated " + count + " times");
+        }
+        listener.onElement(array, element);
+    }
+
+    private LlmOutputException malformed(String message) {
+        return new LlmOutputException(LlmOutputException.Reason.MALFORMED, message);
+    }
+
+    private static String abbreviate(String value) {
+        return value.length() > 80 ? value.substring(0, 80) + "..." : value;
+    }
+}
@@ -0,0 +1,141 @@
+package kz.kbtu.newsservice.llm;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token estimates and the per-call article budget.
+ *
+ * Estimates are heuristic (no tokenizer in the JVM): roughly {@code chars-per-token} characters per
+ * token for ASCII text and two characters per token for everything else, which errs on the high side
+ * for English news. Articles over {@code max-article-tokens} are split into chunks at paragraph
+ * boundaries (sentence boundaries for oversized paragraphs); at most {@code max-chunks} chunks are
+ * analyzed, so the cost of one article is bounded whatever its length.
+ */
+@Component
+@Slf4j
+public class TokenBudget {
+
+    private static final double NON_ASCII_CHARS_PER_TOKEN = 2.0;
+
+    private final double charsPerToken;
+    @Getter
+    private final int maxArticleTokens;
+    private final int maxChunks;
+    @Getter
+    private final int contextTokens;
+
+    public TokenBudget(@Value("${ollama.budget.chars-per-token:4.0}") double charsPerToken,
+                       @Value("${ollama.budget.max-article-tokens:4000}") int maxArticleTokens,
+                       @Value("${ollama.budget.max-chunks:6}") int maxChunks,
+                       @Value("${ollama.context-tokens:16384}") int contextTokens) {
+        this.charsPerToken = charsPerToken;
+        this.maxArticleTokens = maxArticleTokens;
+        this.maxChunks = Math.max(1, maxChunks);
+        this.contextTokens = contextTokens;
+    }
+
+    public int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 128) {
+                ascii++;
+            } else {
+                other++;
+            }
+        }
+        return (int) Math.ceil(ascii / charsPerToken + other / NON_ASCII_CHARS_PER_TOKEN);
+    }
+
+    public boolean fits(String content) {
+        return estimateTokens(content) <= maxArticleTokens;
+    }
+
+    /**
+     * Warns at startup when instructions, the largest article chunk and the output limit
+     * do not fit into the context window together.
+     */
+    public void checkContext(String name, String instructions, int outputTokens) {
+        int required = estimateTokens(instructions) + maxArticleTokens + outputTokens;
+        if (required > contextTokens) {
+            log.warn("{} prompt may overflow the context: ~{} tokens needed (instructions + {} article + {} output), "
+                    + "ollama.context-tokens={}", name, required, maxArticleTokens, outputTokens, contextTokens);
+        }
+    }
+
+    /**
+     * Splits content into chunks of at most {@code max-article-tokens}, keeping paragraphs together
+     * where possible. Content beyond {@code max-chunks} chunks is dropped.
+     */
+    public List<String> split(String content) {
+        List<String> pieces = new ArrayList<>();
+        for (String paragraph : content.split("\n\\s*\n")) {
+            if (estimateTokens(paragraph) <= maxArticleTokens) {
+                pieces.add(paragraph.trim());
+            } else {
+                splitParagraph(paragraph.trim(), pieces);
+            }
+        }
+
+        List<String> chunks = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+        int chunkTokens = 0;
+        for (String piece : pieces) {
+            int tokens = estimateTokens(piece);
+            if (chunkTokens > 0 && chunkTokens + tokens > maxArticleTokens) {
+                chunks.add(chunk.toString());
+                chunk.setLength(0);
+                chunkTokens = 0;
+            }
+            if (!chunk.isEmpty()) {
+                chunk.append("\n\n");
+            }
+            chunk.append(piece);
+            chunkTokens += tokens;
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk.toString());
+        }
+
+        if (chunks.size() > maxChunks) {
+            log.warn("Article needs {} chunks, analyzing the first {}", chunks.size(), maxChunks);
+            return List.copyOf(chunks.subList(0, maxChunks));
+        }
+        return chunks;
+    }
+
+    /**
+     * Sentences of an oversized paragraph, with a hard cut for sentences that are still too long.
+     */
+    private void splitParagraph(String paragraph, List<String> pieces) {
+        int maxChars = (int) (maxArticleTokens * charsPerToken);
+        StringBuilder current = new StringBuilder();
+        for (String sentence : paragraph.split("(?<=[.!?])\\s+")) {
+            if (!current.isEmpty() && estimateTokens(current + " " + sentence) > maxArticleTokens) {
+                pieces.add(current.toString());
+                current.setLength(0);
+            }
+            while (estimateTokens(sentence) > maxArticleTokens) {
+                int cut = Math.min(sentence.length(), Math.max(1, maxChars / 2));
+                pieces.add(sentence.substring(0, cut));
+                sentence = sentence.substring(cut);
+            }
+            if (!current.isEmpty()) {
+                current.append(' ');
+            }
+            current.append(sentence);
+        }
+        if (!current.isEmpty()) {
+            pieces.add(current.toString());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package kz.kbtu.newsservice.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import kz.kbtu.newsservice.pipeline.IngestionPipeline;
+import kz.kbtu.newsservice.pipeline.Stage;
+import kz.kbtu.newsservice.llm.OllamaBackend;
+import kz.kbtu.newsservice.llm.OllamaBackendPool;
+import kz.kbtu.newsservice.llm.OllamaCircuitBreaker;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters of the news ingestion path, exposed via /actuator/prometheus.
+ * All meters start with {@code news.}; histograms for them are enabled in application.yml.
+ */
+@Component
+@Getter
+public class NewsMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Timer rssFetchTimer;
+    private final Timer scrapeTimer;
+    private final Timer analyzeTimer;
+    private final Timer summarizeTimer;
+    private final Timer extractEventsTimer;
+    private final Timer processAnalysisTimer;
+    private final Timer companyResolutionTimer;
+    private final Timer fileBackupTimer;
+
+    public NewsMetrics(MeterRegistry registry, OllamaBackendPool ollamaPool, OllamaCircuitBreaker circuitBreaker) {
+        this.registry = registry;
+        this.rssFetchTimer = timer("news.rss.fetch", "Download and parse of one RSS feed");
+        this.scrapeTimer = timer("news.article.scrape", "Download of one article page");
+        this.analyzeTimer = timer("news.llm.analyze", "LLM analysis of one article");
+        // Kept apart from full analyses so their latency does not drop as more articles are pre-filtered
+        this.summarizeTimer = timer("news.llm.summarize", "Summary-only LLM analysis of one pre-filtered article");
+        this.extractEventsTimer = timer("news.llm.events", "LLM calendar event extraction for one article");
+        this.processAnalysisTimer = timer("news.analysis.persist", "Persisting the analysis and predictions of one article");
+        this.companyResolutionTimer = timer("news.company.resolve", "Resolving one company mention (DB, Twelve Data, enrichment)");
+        this.fileBackupTimer = timer("news.archive.write", "File backup of one analyzed article");
+
+        for (OllamaBackend backend : ollamaPool.getBackends()) {
+            Gauge.builder("news.ollama.concurrency.limit", backend, b -> b.getLimiter().getLimit())
+                    .description("Current AIMD limit on concurrent requests to an Ollama backend")
+                    .tag("backend", backend.getUrl())
+                    .register(registry);
+            Gauge.builder("news.ollama.in.flight", backend, b -> b.getLimiter().getInFlight())
+                    .description("Requests currently running on an Ollama backend")
+                    .tag("backend", backend.getUrl())
+                    .register(registry);
+            Gauge.builder("news.ollama.healthy", backend, b -> b.isHealthy() ? 1 : 0)
+                    .description("Whether an Ollama backend is in rotation")
+                    .tag("backend", backend.getUrl())
+                    .register(registry);
+        }
+        Gauge.builder("news.ollama.circuit.state", circuitBreaker, c -> c.getState().ordinal())
+                .description("Ollama circuit breaker state: 0 = closed, 1 = open, 2 = half-open")
+                .register(registry);
+    }
+
+    public void bindPipeline(IngestionPipeline pipeline, Collection<Stage> stages, Collection<?> activeArticles) {
+        Gauge.builder("news.pipeline.in.flight", pipeline, IngestionPipeline::getInFlight)
+                .description("Articles currently inside the ingestion pipeline")
+                .register(registry);
+        Gauge.builder("news.pipeline.claimed", activeArticles, Collection::size)
+                .description("Articles claimed by a feed run, recovery or Kafka batch")
+                .register(registry);
+        for (Stage stage : stages) {
+            Gauge.builder("news.pipeline.queue.size", pipeline, p -> p.getQueueSize(stage))
+                    .description("Articles waiting for a stage worker")
+                    .tag("stage", stage.getKey())
+                    .register(registry);
+        }
+    }
+
+    public void bindParked(AtomicInteger parkedCount) {
+        Gauge.builder("news.pipeline.parked", parkedCount, AtomicInteger::get)
+                .description("Articles waiting for the Ollama circuit to close")
+                .register(registry);
+    }
+
+    public Timer stageTimer(Stage stage) {
+        return Timer.builder("news.pipeline.stage")
+                .description("Time an article spends in a pipeline stage handler")
+                .tag("stage", stage.getKey())
+                .register(registry);
+    }
+
+    /**
+     * @param outcome succeeded, duplicate, paywalled, empty, fetch_failed, parked, failed or cancelled
+     */
+    public void countArticles(String outcome, int count) {
+        if (count > 0) {
+            registry.counter("news.articles", "outcome", outcome).increment(count);
+        }
+    }
+
+    /**
+     * @param reason malformed or repetition
+     */
+    public void countLlmAbort(String reason) {
+        registry.counter("news.llm.aborted", "reason", reason).increment();
+    }
+
+    /**
+     * @param outcome continued (completed by a continuation), salvaged (complete parts kept) or discarded
+     */
+    public void countLlmTruncation(String outcome) {
+        registry.counter("news.llm.truncated", "outcome", outcome).increment();
+    }
+
+    /**
+     * @param outcome packed (analyzed in a shared generation) or fallback (part of a pack, analyzed on its own)
+     */
+    public void countPackedArticles(String outcome, int count) {
+        if (count > 0) {
+            registry.counter("news.llm.packed", "outcome", outcome).increment(count);
+        }
+    }
+
+    /**
+     * @param route full, summary or audit, see {@link kz.kbtu.newsservice.prefilter.PredictiveFilter.Route}
+     */
+    public void countPrefilterRoute(String route) {
+        registry.counter("news.prefilter.routed", "route", route).increment();
+    }
+
+    /**
+     * @param outcome correct (audited article had no predictions) or missed
+     */
+    public void countPrefilterAudit(String outcome) {
+        registry.counter("news.prefilter.audit", "outcome", outcome).increment();
+    }
+
+    /**
+     * @param source how a company mention was resolved: cache, alias, name, ticker, created or not_public
+     */
+    public void countCompanyLookup(String source) {
+        registry.counter("news.company.lookups", "source", source).increment();
+    }
+
+    public void countUnlistedCompany(String outcome) {
+        registry.counter("news.company.unlisted", "outcome", outcome).increment();
+    }
+
+    private Timer timer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .register(registry);
+    }
+}
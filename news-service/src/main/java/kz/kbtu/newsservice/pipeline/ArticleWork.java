@@ -0,0 +1,64 @@
+package kz.kbtu.newsservice.pipeline;
+
+import kz.kbtu.common.dto.ArticleAnalysisDto;
+import kz.kbtu.common.dto.RssArticleDto;
+import kz.kbtu.common.entity.Article;
+import kz.kbtu.common.entity.Company;
+import lombok.Getter;
+import lombok.Setter;
+import org.jsoup.nodes.Document;
+
+import java.util.Map;
+
+/**
+ * State of a single article as it moves through the ingestion pipeline.
+ * Each stage reads what the previous stages produced and fills in its own part.
+ */
+@Getter
+@Setter
+public class ArticleWork {
+
+    private final PipelineRun run;
+    private final RssArticleDto source;
+
+    private Long articleId;
+    private Document document;          // FETCH → EXTRACT, cleared after extraction
+    private String content;             // EXTRACT
+    private ArticleAnalysisDto analysis; // ANALYZE
+    private boolean summaryOnly;        // ANALYZE: pre-filtered as non-predictive, analysis has no predictions
+    private Map<String, Company> resolvedCompanies; // RESOLVE: mentioned name → company (null = not public)
+    private Article article;            // PERSIST
+
+    private SkipReason skipReason;
+
+    public ArticleWork(PipelineRun run, RssArticleDto source) {
+        this.run = run;
+        this.source = source;
+    }
+
+    public String getTitle() {
+        return source.getTitle();
+    }
+
+    /**
+     * Articles that already carry scraped content resume at analysis, all others start at the fetch stage.
+     */
+    public Stage entryStage() {
+        return content != null ? Stage.ANALYZE : Stage.FETCH;
+    }
+
+    /**
+     * Marks this article as not worth continuing. Stage handlers call this and return {@code false}.
+     */
+    public void skip(SkipReason reason) {
+        this.skipReason = reason;
+    }
+
+    public enum SkipReason {
+        FETCH_FAILED,
+        PAYWALLED,
+        NO_CONTENT,
+        CANCELLED,
+        PARKED              // Ollama unavailable; kept aside and replayed from ANALYZE
+    }
+}
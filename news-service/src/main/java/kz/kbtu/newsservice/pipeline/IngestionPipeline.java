@@ -0,0 +1,227 @@
+package kz.kbtu.newsservice.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bounded, staged article pipeline running on virtual threads.
+ *
+ * Every stage owns a bounded queue and a fixed number of workers, so a slow stage
+ * (LLM analysis) applies back-pressure to the stages before it while faster stages
+ * (scraping, DB writes) keep working on other articles. A global semaphore caps the
+ * number of articles that are inside the pipeline at once.
+ */
+@Slf4j
+public class IngestionPipeline {
+
+    @FunctionalInterface
+    public interface StageHandler {
+        /**
+         * @return {@code true} to pass the article on to the next stage,
+         *         {@code false} if the article was skipped (see {@link ArticleWork#skip})
+         */
+        boolean handle(ArticleWork work) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface CompletionListener {
+        /**
+         * Called once per article when it leaves the pipeline.
+         *
+         * @param stage the last stage the article reached
+         * @param error the failure cause for {@link Outcome#FAILED}, otherwise null
+         */
+        void onComplete(ArticleWork work, Stage stage, Outcome outcome, Exception error);
+    }
+
+    public enum Outcome {
+        SUCCEEDED,
+        SKIPPED,
+        FAILED
+    }
+
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final Map<Stage, StageWorkers> stages = new EnumMap<>(Stage.class);
+    private final List<Thread> threads = new ArrayList<>();
+    private final List<CompletionListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+
+    public IngestionPipeline(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    public IngestionPipeline stage(Stage stage, int concurrency, int queueCapacity, StageHandler handler) {
+        if (running) {
+            throw new IllegalStateException("Pipeline already started");
+        }
+        stages.put(stage, new StageWorkers(stage, Math.max(1, concurrency), Math.max(1, queueCapacity), handler));
+        return this;
+    }
+
+    public IngestionPipeline onComplete(CompletionListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+
+        // Link stages in declaration order of the Stage enum
+        StageWorkers previous = null;
+        for (StageWorkers workers : stages.values()) {
+            if (previous != null) {
+                previous.next = workers;
+            }
+            previous = workers;
+        }
+
+        for (StageWorkers workers : stages.values()) {
+            Thread.Builder builder = Thread.ofVirtual().name("pipeline-" + workers.stage.getKey() + "-", 0);
+            for (int i = 0; i < workers.concurrency; i++) {
+                threads.add(builder.start(() -> workLoop(workers)));
+            }
+            log.info("Pipeline stage {} started (concurrency={}, queue={})",
+                    workers.stage, workers.concurrency, workers.queue.remainingCapacity());
+        }
+    }
+
+    public synchronized void stop() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+        threads.clear();
+    }
+
+    /**
+     * Submits an article starting at the first stage. Blocks while the in-flight cap is reached.
+     */
+    public void submit(ArticleWork work) throws InterruptedException {
+        submit(work, stages.keySet().iterator().next());
+    }
+
+    /**
+     * Submits an article starting at the given stage. Blocks while the in-flight cap is reached
+     * or the stage queue is full.
+     */
+    public void submit(ArticleWork work, Stage entryStage) throws InterruptedException {
+        StageWorkers workers = stages.get(entryStage);
+        if (workers == null) {
+            throw new IllegalArgumentException("Stage not configured: " + entryStage);
+        }
+        inFlight.acquire();
+        try {
+            workers.queue.put(work);
+        } catch (InterruptedException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    public int getQueueSize(Stage stage) {
+        StageWorkers workers = stages.get(stage);
+        return workers != null ? workers.queue.size() : 0;
+    }
+
+    private void workLoop(StageWorkers workers) {
+        while (running) {
+            ArticleWork work;
+            try {
+                work = workers.queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            process(workers, work);
+        }
+    }
+
+    private void process(StageWorkers workers, ArticleWork work) {
+        if (work.getRun().isCancelled()) {
+            work.skip(ArticleWork.SkipReason.CANCELLED);
+            complete(work, workers.stage, Outcome.SKIPPED, null);
+            return;
+        }
+
+        boolean proceed;
+        work.getRun().enterStage(workers.stage);
+        try {
+            proceed = workers.handler.handle(work);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            complete(work, workers.stage, Outcome.FAILED, e);
+            return;
+        } catch (Exception e) {
+            log.error("[{}] Failed to process article: {}", workers.stage, work.getTitle(), e);
+            complete(work, workers.stage, Outcome.FAILED, e);
+            return;
+        } finally {
+            work.getRun().leaveStage(workers.stage);
+        }
+
+        if (!proceed) {
+            complete(work, workers.stage, Outcome.SKIPPED, null);
+            return;
+        }
+
+        if (workers.next == null) {
+            complete(work, workers.stage, Outcome.SUCCEEDED, null);
+            return;
+        }
+
+        try {
+            workers.next.queue.put(work);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            complete(work, workers.stage, Outcome.FAILED, e);
+        }
+    }
+
+    private void complete(ArticleWork work, Stage stage, Outcome outcome, Exception error) {
+        for (CompletionListener listener : listeners) {
+            try {
+                listener.onComplete(work, stage, outcome, error);
+            } catch (Exception e) {
+                log.warn("Pipeline completion listener failed for '{}': {}", work.getTitle(), e.getMessage());
+            }
+        }
+
+        inFlight.release();
+        switch (outcome) {
+            case SUCCEEDED -> work.getRun().recordSuccess();
+            case SKIPPED -> work.getRun().recordSkip();
+            case FAILED -> work.getRun().recordFailure(error != null
+                    ? stage + " '" + work.getTitle() + "': " + error.getMessage()
+                    : null);
+        }
+    }
+
+    private static class StageWorkers {
+        final Stage stage;
+        final int concurrency;
+        final BlockingQueue<ArticleWork> queue;
+        final StageHandler handler;
+        StageWorkers next;
+
+        StageWorkers(Stage stage, int concurrency, int queueCapacity, StageHandler handler) {
+            this.stage = stage;
+            this.concurrency = concurrency;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.handler = handler;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package kz.kbtu.newsservice.pipeline;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks one batch of articles submitted to the pipeline (e.g. one RSS feed run).
+ * Articles from several runs can be in the pipeline at the same time.
+ */
+public class PipelineRun {
+
+    @Getter
+    private final String label;
+
+    @Getter
+    private final int total;
+
+    @Getter
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private final CountDownLatch remaining;
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final Map<Stage, AtomicInteger> inStage = new EnumMap<>(Stage.class);
+    private final Deque<String> recentErrors = new ConcurrentLinkedDeque<>();
+
+    private static final int MAX_RECENT_ERRORS = 20;
+
+    private volatile boolean cancelled;
+
+    public PipelineRun(String label, int total) {
+        this.label = label;
+        this.total = total;
+        this.remaining = new CountDownLatch(total);
+        for (Stage stage : Stage.values()) {
+            inStage.put(stage, new AtomicInteger());
+        }
+    }
+
+    void enterStage(Stage stage) {
+        inStage.get(stage).incrementAndGet();
+    }
+
+    void leaveStage(Stage stage) {
+        inStage.get(stage).decrementAndGet();
+    }
+
+    void recordSuccess() {
+        succeeded.incrementAndGet();
+        remaining.countDown();
+    }
+
+    void recordSkip() {
+        skipped.incrementAndGet();
+        remaining.countDown();
+    }
+
+    void recordFailure(String error) {
+        if (error != null) {
+            recentErrors.addLast(error);
+            while (recentErrors.size() > MAX_RECENT_ERRORS) {
+                recentErrors.pollFirst();
+            }
+        }
+        failed.incrementAndGet();
+        remaining.countDown();
+    }
+
+    /**
+     * Accounts for articles that were never submitted (e.g. submission was interrupted),
+     * so that {@link #await()} does not wait for them.
+     */
+    public void abandon(int count) {
+        for (int i = 0; i < count; i++) {
+            recordSkip();
+        }
+    }
+
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void await() throws InterruptedException {
+        remaining.await();
+    }
+
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return remaining.await(timeout, unit);
+    }
+
+    public boolean isDone() {
+        return remaining.getCount() == 0;
+    }
+
+    public int getSucceeded() {
+        return succeeded.get();
+    }
+
+    public int getSkipped() {
+        return skipped.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    public int getCompleted() {
+        return total - (int) remaining.getCount();
+    }
+
+    /**
+     * Number of articles of this run that a stage worker is processing right now, per stage.
+     * Articles waiting in a stage queue are not counted.
+     */
+    public Map<Stage, Integer> getInStage() {
+        Map<Stage, Integer> counts = new EnumMap<>(Stage.class);
+        inStage.forEach((stage, count) -> {
+            if (count.get() > 0) {
+                counts.put(stage, count.get());
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * The last few failure messages, oldest first.
+     */
+    public List<String> getRecentErrors() {
+        return List.copyOf(recentErrors);
+    }
+}
@@ -0,0 +1,25 @@
+package kz.kbtu.newsservice.pipeline;
+
+/**
+ * Stages of the article ingestion pipeline, in execution order.
+ * The property key is used for per-stage configuration under {@code pipeline.stages.<key>}.
+ */
+public enum Stage {
+    FETCH("fetch"),       // Download article HTML
+    EXTRACT("extract"),   // Paywall check + paragraph extraction
+    ANALYZE("analyze"),   // LLM analysis
+    RESOLVE("resolve"),   // Company resolution (DB / Twelve Data / Finnhub)
+    PERSIST("persist"),   // Save analysis and predictions
+    EVENTS("events"),     // LLM calendar event extraction
+    ARCHIVE("archive");   // File backup
+
+    private final String key;
+
+    Stage(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
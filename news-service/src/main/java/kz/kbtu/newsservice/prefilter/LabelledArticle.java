@@ -0,0 +1,8 @@
+package kz.kbtu.newsservice.prefilter;
+
+/**
+ * Training sample for {@link PrefilterTrainer}: content of an analyzed article and how many predictions
+ * its analysis produced.
+ */
+public record LabelledArticle(Long id, String content, Integer predictions) {
+}
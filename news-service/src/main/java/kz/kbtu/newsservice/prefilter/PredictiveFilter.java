@@ -0,0 +1,140 @@
+package kz.kbtu.newsservice.prefilter;
+
+import jakarta.annotation.PostConstruct;
+import kz.kbtu.common.dto.ArticleAnalysisDto;
+import kz.kbtu.newsservice.metrics.NewsMetrics;
+import kz.kbtu.newsservice.service.OllamaAnalysisService;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides before the LLM call whether an article is worth a full analysis.
+ *
+ * Retrospective and opinion pieces get an empty predictions array from the model anyway (RULE 5 of the
+ * analysis prompt). {@link PredictiveModel}, trained from stored analyses by {@link PrefilterTrainer},
+ * estimates the probability that an article yields predictions; below {@code prefilter.threshold} the article
+ * only gets a summary. A {@code prefilter.audit-rate} share of those still gets the full analysis, which
+ * measures how often the filter is wrong. Which articles are audited follows from a hash of their content,
+ * so a re-run or replay routes every article the same way. Without a model file every article is analyzed
+ * in full.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PredictiveFilter {
+
+    public enum Route {
+        FULL,       // scored as predictive (or no model)
+        SUMMARY,    // scored as non-predictive: summary-only analysis
+        AUDIT       // scored as non-predictive, analyzed in full to measure accuracy
+    }
+
+    private final NewsMetrics metrics;
+
+    @Value("${prefilter.enabled:true}")
+    private boolean enabled;
+
+    @Getter
+    @Value("${prefilter.model-path:prefilter-model.bin}")
+    private Path modelPath;
+
+    @Value("${prefilter.threshold:0.15}")
+    private double threshold;
+
+    @Value("${prefilter.audit-rate:0.05}")
+    private double auditRate;
+
+    private volatile PredictiveModel model;
+    private final AtomicLong audited = new AtomicLong();
+    private final AtomicLong auditMissed = new AtomicLong();
+
+    @PostConstruct
+    void load() {
+        if (!enabled || !Files.exists(modelPath)) {
+            log.info("Pre-filter inactive (enabled={}, model {} present={}), all articles get a full analysis",
+                    enabled, modelPath.toAbsolutePath(), Files.exists(modelPath));
+            return;
+        }
+        try {
+            model = PredictiveModel.read(modelPath);
+            log.info("Pre-filter model loaded from {}, threshold {}, audit rate {}",
+                    modelPath.toAbsolutePath(), threshold, auditRate);
+        } catch (IOException e) {
+            log.error("Failed to load pre-filter model from {}, all articles get a full analysis",
+                    modelPath.toAbsolutePath(), e);
+        }
+    }
+
+    public Route route(String content) {
+        PredictiveModel current = model;
+        if (!enabled || current == null || content == null) {
+            return Route.FULL;
+        }
+        Route route;
+        if (current.score(content) >= threshold) {
+            route = Route.FULL;
+        } else if (auditDraw(content) < auditRate) {
+            route = Route.AUDIT;
+        } else {
+            route = Route.SUMMARY;
+        }
+        metrics.countPrefilterRoute(route.name().toLowerCase());
+        return route;
+    }
+
+    /**
+     * Uniform in [0, 1) over articles, but the same for the same content: the route decides the prompt, which
+     * has to be reproducible for replayed fixtures and cache hits.
+     */
+    private static double auditDraw(String content) {
+        return Integer.toUnsignedLong(TextFeatures.mix(content.hashCode())) / (double) (1L << 32);
+    }
+
+    /**
+     * Records the full analysis of an {@link Route#AUDIT} article: the filter was wrong if it has predictions.
+     * A failed analysis has no predictions either way and is not counted.
+     */
+    public void recordAudit(ArticleAnalysisDto analysis) {
+        if (OllamaAnalysisService.FAILED_SUMMARY.equals(analysis.getSummary())) {
+            return;
+        }
+        boolean missed = analysis.getPredictions() != null && !analysis.getPredictions().isEmpty();
+        audited.incrementAndGet();
+        if (missed) {
+            auditMissed.incrementAndGet();
+        }
+        metrics.countPrefilterAudit(missed ? "missed" : "correct");
+    }
+
+    double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Replaces the model used for routing, e.g. after {@link PrefilterTrainer} wrote a new one.
+     */
+    void install(PredictiveModel model) {
+        this.model = model;
+    }
+
+    public Status getStatus() {
+        long total = audited.get();
+        return new Status(enabled, model != null, threshold, auditRate, total, auditMissed.get(),
+                total > 0 ? 1.0 - (double) auditMissed.get() / total : null);
+    }
+
+    /**
+     * @param auditAccuracy share of audited articles that indeed had no predictions, null before the first audit
+     */
+    public record Status(boolean enabled, boolean modelLoaded, double threshold, double auditRate,
+                         long audited, long auditMissed, Double auditAccuracy) {
+    }
+}
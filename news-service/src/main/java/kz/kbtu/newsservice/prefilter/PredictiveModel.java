@@ -0,0 +1,115 @@
+package kz.kbtu.newsservice.prefilter;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Logistic regression over {@link TextFeatures}: the probability that the LLM analysis of an article
+ * contains at least one prediction. Scoring is one pass over the article text and a dot product
+ * over the non-zero features.
+ */
+final class PredictiveModel {
+
+    private static final int MAGIC = 0x50464c31; // "PFL1"
+
+    private final int bits;
+    private final float[] weights;
+    private float bias;
+
+    private PredictiveModel(int bits, float[] weights, float bias) {
+        this.bits = bits;
+        this.weights = weights;
+        this.bias = bias;
+    }
+
+    double score(String content) {
+        return score(TextFeatures.extract(content, bits));
+    }
+
+    double score(TextFeatures.SparseVector features) {
+        double z = bias;
+        int[] indices = features.indices();
+        float[] values = features.values();
+        for (int i = 0; i < indices.length; i++) {
+            z += weights[indices[i]] * values[i];
+        }
+        return 1.0 / (1.0 + Math.exp(-z));
+    }
+
+    int getBits() {
+        return bits;
+    }
+
+    /**
+     * Stochastic gradient descent on the log loss with L2 regularization of the touched weights;
+     * samples are shuffled with {@code seed} every epoch and the learning rate decays per epoch.
+     */
+    static PredictiveModel train(List<TextFeatures.SparseVector> samples, boolean[] labels, int bits,
+                                 int epochs, double learningRate, double l2, long seed) {
+        PredictiveModel model = new PredictiveModel(bits, new float[1 << bits], 0f);
+        int[] order = new int[samples.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Random random = new Random(seed);
+
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            for (int i = order.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            double rate = learningRate / (1 + epoch);
+            for (int sample : order) {
+                TextFeatures.SparseVector features = samples.get(sample);
+                double gradient = model.score(features) - (labels[sample] ? 1 : 0);
+                int[] indices = features.indices();
+                float[] values = features.values();
+                for (int k = 0; k < indices.length; k++) {
+                    float weight = model.weights[indices[k]];
+                    model.weights[indices[k]] = (float) (weight - rate * (gradient * values[k] + l2 * weight));
+                }
+                model.bias -= (float) (rate * gradient);
+            }
+        }
+        return model;
+    }
+
+    static PredictiveModel read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a pre-filter model: " + file);
+            }
+            int bits = in.readInt();
+            float bias = in.readFloat();
+            float[] weights = new float[1 << bits];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = in.readFloat();
+            }
+            return new PredictiveModel(bits, weights, bias);
+        }
+    }
+
+    /**
+     * Writes to a temporary file first, so a model being loaded is never half written.
+     */
+    void write(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(bits);
+            out.writeFloat(bias);
+            for (float weight : weights) {
+                out.writeFloat(weight);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,169 @@
+package kz.kbtu.newsservice.prefilter;
+
+import kz.kbtu.newsservice.repository.ArticleRepository;
+import kz.kbtu.newsservice.service.OllamaAnalysisService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Trains {@link PredictiveModel} from the stored articles and their prediction counts, writes it to
+ * {@code prefilter.model-path} and hands it to {@link PredictiveFilter}.
+ *
+ * Only full analyses are labels: summary-only ones have no predictions by construction and would
+ * teach the filter its own decisions. Every fifth sample is held out to measure the model at the
+ * configured threshold before it is installed. A model that would send more than
+ * {@code prefilter.train.max-missed-predictive} of the predictive holdout articles to a summary is
+ * rejected, and the current one stays in use.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PrefilterTrainer {
+
+    private static final int PAGE_SIZE = 500;
+    private static final long SEED = 42;
+
+    private final ArticleRepository articleRepository;
+    private final PredictiveFilter filter;
+
+    @Value("${prefilter.train.max-samples:20000}")
+    private int maxSamples;
+
+    @Value("${prefilter.train.min-samples:200}")
+    private int minSamples;
+
+    @Value("${prefilter.train.epochs:5}")
+    private int epochs;
+
+    @Value("${prefilter.train.feature-bits:18}")
+    private int featureBits;
+
+    @Value("${prefilter.train.max-missed-predictive:0.2}")
+    private double maxMissedPredictive;
+
+    /**
+     * @throws IllegalStateException if there are fewer than {@code prefilter.train.min-samples} labelled articles
+     */
+    public synchronized TrainingReport train() {
+        long started = System.currentTimeMillis();
+        List<LabelledArticle> articles = loadSamples();
+        if (articles.size() < minSamples) {
+            throw new IllegalStateException("Only " + articles.size() + " analyzed articles to train on, need "
+                    + minSamples);
+        }
+        Collections.shuffle(articles, new Random(SEED));
+
+        List<TextFeatures.SparseVector> train = new ArrayList<>();
+        List<Boolean> trainLabels = new ArrayList<>();
+        List<TextFeatures.SparseVector> holdout = new ArrayList<>();
+        List<Boolean> holdoutLabels = new ArrayList<>();
+        for (int i = 0; i < articles.size(); i++) {
+            LabelledArticle article = articles.get(i);
+            TextFeatures.SparseVector features = TextFeatures.extract(article.content(), featureBits);
+            boolean predictive = article.predictions() != null && article.predictions() > 0;
+            if (i % 5 == 0) {
+                holdout.add(features);
+                holdoutLabels.add(predictive);
+            } else {
+                train.add(features);
+                trainLabels.add(predictive);
+            }
+        }
+
+        boolean[] labels = new boolean[trainLabels.size()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = trainLabels.get(i);
+        }
+        PredictiveModel model = PredictiveModel.train(train, labels, featureBits, epochs, 0.5, 1e-6, SEED);
+
+        int correct = 0;
+        int routedToSummary = 0;
+        int predictive = 0;
+        int missedPredictive = 0;
+        for (int i = 0; i < holdout.size(); i++) {
+            boolean full = model.score(holdout.get(i)) >= filter.getThreshold();
+            boolean actual = holdoutLabels.get(i);
+            if (full == actual) {
+                correct++;
+            }
+            if (!full) {
+                routedToSummary++;
+            }
+            if (actual) {
+                predictive++;
+                if (!full) {
+                    missedPredictive++;
+                }
+            }
+        }
+
+        double missedShare = ratio(missedPredictive, predictive);
+        boolean accepted = missedShare <= maxMissedPredictive;
+        if (accepted) {
+            try {
+                model.write(filter.getModelPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write pre-filter model to " + filter.getModelPath(), e);
+            }
+            filter.install(model);
+        }
+
+        TrainingReport report = new TrainingReport(
+                accepted,
+                articles.size(),
+                (int) articles.stream().filter(a -> a.predictions() != null && a.predictions() > 0).count(),
+                holdout.size(),
+                ratio(correct, holdout.size()),
+                ratio(routedToSummary, holdout.size()),
+                missedShare,
+                System.currentTimeMillis() - started);
+        if (accepted) {
+            log.info("Pre-filter model trained and installed: {}", report);
+        } else {
+            log.warn("Pre-filter model rejected, missed predictive share {} is above {}; keeping the current model: {}",
+                    missedShare, maxMissedPredictive, report);
+        }
+        return report;
+    }
+
+    private List<LabelledArticle> loadSamples() {
+        List<LabelledArticle> articles = new ArrayList<>();
+        long afterId = 0;
+        while (articles.size() < maxSamples) {
+            List<LabelledArticle> page = articleRepository.findLabelledArticles(afterId,
+                    "%" + OllamaAnalysisService.SUMMARY_MODEL_SUFFIX,
+                    PageRequest.ofSize(Math.min(PAGE_SIZE, maxSamples - articles.size())));
+            if (page.isEmpty()) {
+                break;
+            }
+            articles.addAll(page);
+            afterId = page.getLast().id();
+        }
+        return articles;
+    }
+
+    private static double ratio(int count, int total) {
+        return total > 0 ? (double) count / total : 0.0;
+    }
+
+    /**
+     * Holdout figures at the configured threshold.
+     *
+     * @param installed        false if the model was rejected for missing too many predictive articles
+     * @param summaryShare     share of articles that would get only a summary
+     * @param missedPredictive share of articles with predictions that would get only a summary
+     */
+    public record TrainingReport(boolean installed, int samples, int predictiveSamples, int holdoutSamples, double accuracy,
+                                 double summaryShare, double missedPredictive, long durationMs) {
+    }
+}
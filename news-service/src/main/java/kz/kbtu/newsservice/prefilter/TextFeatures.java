@@ -0,0 +1,92 @@
+package kz.kbtu.newsservice.prefilter;
+
+import java.util.Arrays;
+
+/**
+ * Hashed bag of words and word bigrams of an article, the input of {@link PredictiveModel}.
+ *
+ * Words are runs of letters and digits of at least two characters, lower-cased while hashing so no
+ * substrings are allocated. Each word and each pair of adjacent words is hashed into one of
+ * {@code 2^bits} buckets; a bucket's value is its count divided by the square root of the word count,
+ * so long and short articles produce vectors of similar length. One extra feature encodes the length class.
+ */
+final class TextFeatures {
+
+    private static final int FNV_OFFSET = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+    private static final int BIGRAM_SEED = 0x9e3779b9;
+    private static final int LENGTH_SEED = 0x85ebca6b;
+
+    private TextFeatures() {
+    }
+
+    record SparseVector(int[] indices, float[] values) {
+    }
+
+    static SparseVector extract(String text, int bits) {
+        int mask = (1 << bits) - 1;
+        int[] hashes = new int[256];
+        int count = 0;
+        int words = 0;
+        int previous = 0;
+
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            int hash = FNV_OFFSET;
+            char c;
+            while (i < length && Character.isLetterOrDigit(c = text.charAt(i))) {
+                hash = (hash ^ Character.toLowerCase(c)) * FNV_PRIME;
+                i++;
+            }
+            if (i - start < 2) {
+                continue;
+            }
+
+            if (count + 2 > hashes.length) {
+                hashes = Arrays.copyOf(hashes, hashes.length * 2);
+            }
+            hashes[count++] = mix(hash) & mask;
+            if (words > 0) {
+                hashes[count++] = mix(previous * 31 + hash + BIGRAM_SEED) & mask;
+            }
+            previous = hash;
+            words++;
+        }
+        if (count == hashes.length) {
+            hashes = Arrays.copyOf(hashes, count + 1);
+        }
+        hashes[count++] = mix(LENGTH_SEED + 32 - Integer.numberOfLeadingZeros(words)) & mask;
+
+        Arrays.sort(hashes, 0, count);
+        int[] indices = new int[count];
+        float[] values = new float[count];
+        float scale = (float) (1.0 / Math.sqrt(Math.max(1, words)));
+        int distinct = 0;
+        for (int k = 0; k < count; k++) {
+            if (distinct > 0 && indices[distinct - 1] == hashes[k]) {
+                values[distinct - 1] += scale;
+            } else {
+                indices[distinct] = hashes[k];
+                values[distinct] = scale;
+                distinct++;
+            }
+        }
+        return new SparseVector(Arrays.copyOf(indices, distinct), Arrays.copyOf(values, distinct));
+    }
+
+    // Murmur3 finalizer, spreads FNV hashes over the low bits used as bucket index
+    static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,68 @@
+package kz.kbtu.newsservice.prompt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prompt template with {@code {{name}}} placeholders, split into literal segments once at compile time.
+ *
+ * Rendering only concatenates: the output buffer is sized up front from the literal length plus
+ * the values, so a prompt with a long article body is assembled without intermediate copies.
+ * Templates are meant to be compiled once and kept in a static field.
+ */
+public final class PromptTemplate {
+
+    private final String[] literals;
+    private final String[] slots;
+    private final int literalLength;
+
+    private PromptTemplate(List<String> literals, List<String> slots) {
+        this.literals = literals.toArray(String[]::new);
+        this.slots = slots.toArray(String[]::new);
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    public static PromptTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+
+        int position = 0;
+        while (true) {
+            int open = template.indexOf("{{", position);
+            if (open < 0) {
+                break;
+            }
+            int close = template.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            literals.add(template.substring(position, open));
+            slots.add(template.substring(open + 2, close).trim());
+            position = close + 2;
+        }
+        literals.add(template.substring(position));
+        return new PromptTemplate(literals, slots);
+    }
+
+    /**
+     * @throws IllegalArgumentException if a placeholder has no value
+     */
+    public String render(Map<String, String> values) {
+        String[] resolved = new String[slots.length];
+        int length = literalLength;
+        for (int i = 0; i < slots.length; i++) {
+            resolved[i] = values.get(slots[i]);
+            if (resolved[i] == null) {
+                throw new IllegalArgumentException("No value for prompt placeholder '" + slots[i] + "'");
+            }
+            length += resolved[i].length();
+        }
+
+        StringBuilder prompt = new StringBuilder(length);
+        for (int i = 0; i < slots.length; i++) {
+            prompt.append(literals[i]).append(resolved[i]);
+        }
+        return prompt.append(literals[slots.length]).toString();
+    }
+}
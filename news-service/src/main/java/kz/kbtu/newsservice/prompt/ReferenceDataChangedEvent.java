@@ -0,0 +1,8 @@
+package kz.kbtu.newsservice.prompt;
+
+/**
+ * Published after sectors (or other reference data quoted in prompts) are written,
+ * so cached prompt sections are rebuilt on next use.
+ */
+public record ReferenceDataChangedEvent(String source) {
+}
@@ -0,0 +1,82 @@
+package kz.kbtu.newsservice.prompt;
+
+import kz.kbtu.common.entity.EconomySector;
+import kz.kbtu.newsservice.repository.EconomySectorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Rendered reference-data sections of the LLM prompts, built from the database once and reused
+ * for every article. Rebuilt after a {@link ReferenceDataChangedEvent}, and at the latest every
+ * {@code prompts.reference-refresh-ms} to pick up changes made outside this service.
+ * Sectors are sorted by code so the rendered text, and with it the prompt prefix, stays stable.
+ */
+@Component
+@Slf4j
+public class ReferenceDataPrompts {
+
+    private final EconomySectorRepository sectorRepository;
+    private final long refreshMillis;
+
+    private volatile Sections sections;
+
+    public ReferenceDataPrompts(EconomySectorRepository sectorRepository,
+                                @Value("${prompts.reference-refresh-ms:600000}") long refreshMillis) {
+        this.sectorRepository = sectorRepository;
+        this.refreshMillis = refreshMillis;
+    }
+
+    private record Sections(String sectorCatalog, String sectorCodes, long loadedAt) {
+    }
+
+    /**
+     * Sectors with name and description, e.g. {@code TECH (Technology: Software, hardware...)}.
+     */
+    public String sectorCatalog() {
+        return sections().sectorCatalog();
+    }
+
+    /**
+     * Sectors with name only, e.g. {@code TECH (Technology)}.
+     */
+    public String sectorCodes() {
+        return sections().sectorCodes();
+    }
+
+    @EventListener
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        log.info("Reference data changed ({}), rebuilding prompt sections", event.source());
+        sections = null;
+    }
+
+    private Sections sections() {
+        Sections current = sections;
+        if (current == null || System.currentTimeMillis() - current.loadedAt() > refreshMillis) {
+            current = load();
+            sections = current;
+        }
+        return current;
+    }
+
+    private Sections load() {
+        List<EconomySector> sectors = sectorRepository.findAll().stream()
+                .sorted(Comparator.comparing(EconomySector::getCode))
+                .toList();
+
+        String catalog = sectors.stream()
+                .map(s -> s.getCode() + " (" + s.getName()
+                        + (s.getDescription() != null ? ": " + s.getDescription() : "") + ")")
+                .collect(Collectors.joining(", "));
+        String codes = sectors.stream()
+                .map(s -> s.getCode() + " (" + s.getName() + ")")
+                .collect(Collectors.joining(", "));
+
+        return new Sections(catalog, codes, System.currentTimeMillis());
+    }
+}
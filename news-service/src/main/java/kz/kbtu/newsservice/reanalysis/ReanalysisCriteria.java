@@ -0,0 +1,22 @@
+package kz.kbtu.newsservice.reanalysis;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Which stored articles a re-analysis job picks up. All fields are optional;
+ * an empty criteria re-analyzes every analyzed article.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReanalysisCriteria {
+    private String analysisModel;   // only articles analyzed by this model, e.g. "qwen2.5:14b"
+    private LocalDate from;         // publish date, inclusive
+    private LocalDate to;           // publish date, inclusive
+}
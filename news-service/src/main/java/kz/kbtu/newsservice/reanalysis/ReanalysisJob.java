@@ -0,0 +1,101 @@
+package kz.kbtu.newsservice.reanalysis;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of a bulk re-analysis job. Serialized as-is by the progress endpoint.
+ */
+@Getter
+public class ReanalysisJob {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        CANCELLED
+    }
+
+    private final String id;
+    private final ReanalysisCriteria criteria;
+    private final String targetModel;
+    private final int total;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private volatile LocalDateTime finishedAt;
+    private volatile Status status = Status.RUNNING;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger succeeded = new AtomicInteger();
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger failed = new AtomicInteger();
+
+    public ReanalysisJob(String id, ReanalysisCriteria criteria, String targetModel, int total) {
+        this.id = id;
+        this.criteria = criteria;
+        this.targetModel = targetModel;
+        this.total = total;
+    }
+
+    public int getSucceeded() {
+        return succeeded.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    public int getProcessed() {
+        return succeeded.get() + failed.get();
+    }
+
+    public double getArticlesPerMinute() {
+        long elapsedMs = elapsed().toMillis();
+        return elapsedMs > 0 ? getProcessed() * 60_000.0 / elapsedMs : 0;
+    }
+
+    /**
+     * Remaining time at the average rate so far, or null until the first article is done.
+     */
+    public Long getEtaSeconds() {
+        int processed = getProcessed();
+        if (status != Status.RUNNING) {
+            return 0L;
+        }
+        if (processed == 0) {
+            return null;
+        }
+        return elapsed().toSeconds() * (total - processed) / processed;
+    }
+
+    public boolean isCancelled() {
+        return status == Status.CANCELLED;
+    }
+
+    public void recordSuccess(int count) {
+        succeeded.addAndGet(count);
+    }
+
+    public void recordFailure(int count) {
+        failed.addAndGet(count);
+    }
+
+    public void cancel() {
+        if (status == Status.RUNNING) {
+            status = Status.CANCELLED;
+        }
+    }
+
+    public void finish() {
+        if (status == Status.RUNNING) {
+            status = Status.COMPLETED;
+        }
+        finishedAt = LocalDateTime.now();
+    }
+
+    private Duration elapsed() {
+        return Duration.between(startedAt, finishedAt != null ? finishedAt : LocalDateTime.now());
+    }
+}
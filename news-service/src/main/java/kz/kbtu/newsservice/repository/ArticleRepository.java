@@ -1,6 +1,8 @@
 package kz.kbtu.newsservice.repository;
 
 import kz.kbtu.common.entity.Article;
+import kz.kbtu.newsservice.prefilter.LabelledArticle;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -41,4 +43,40 @@ public interface ArticleRepository extends JpaRepository<Article, Long> {
 
     @Query("SELECT a.cnbcId FROM Article a WHERE a.cnbcId IN :cnbcIds")
     Set<String> findExistingCnbcIds(@Param("cnbcIds") Collection<String> cnbcIds);
-}
\ No newline at end of file
+
+    // Half-processed articles that are due for another attempt; scraped ones first (cheaper to finish)
+    @Query("SELECT a FROM Article a WHERE a.isAnalyzed = false " +
+           "AND COALESCE(a.processingAttempts, 0) < :maxAttempts " +
+           "AND (a.nextAttemptAt IS NULL OR a.nextAttemptAt <= :now) " +
+           "AND a.updatedAt < :staleBefore " +
+           "ORDER BY a.isScraped DESC, a.id ASC")
+    List<Article> findRecoverableArticles(@Param("maxAttempts") int maxAttempts,
+                                          @Param("now") LocalDateTime now,
+                                          @Param("staleBefore") LocalDateTime staleBefore,
+                                          Pageable pageable);
+
+    // Analyzed articles with stored content in [from, to) by publish date (creation date if unknown)
+    @Query("SELECT a.id FROM Article a WHERE a.isAnalyzed = true AND a.content IS NOT NULL " +
+           "AND COALESCE(a.publishedAt, a.createdAt) >= :from AND COALESCE(a.publishedAt, a.createdAt) < :to " +
+           "ORDER BY a.id ASC")
+    List<Long> findReanalysisCandidates(@Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+
+    @Query("SELECT a.id FROM Article a WHERE a.isAnalyzed = true AND a.content IS NOT NULL " +
+           "AND a.analysisModel = :analysisModel " +
+           "AND COALESCE(a.publishedAt, a.createdAt) >= :from AND COALESCE(a.publishedAt, a.createdAt) < :to " +
+           "ORDER BY a.id ASC")
+    List<Long> findReanalysisCandidatesByModel(@Param("analysisModel") String analysisModel,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    // Full analyses after afterId, labelled with their prediction count; failed analyses carry no label
+    @Query("SELECT new kz.kbtu.newsservice.prefilter.LabelledArticle(a.id, a.content, SIZE(a.predictions)) " +
+           "FROM Article a WHERE a.isAnalyzed = true AND a.content IS NOT NULL AND a.id > :afterId " +
+           "AND (a.analysisModel IS NULL OR a.analysisModel NOT LIKE :excludedModels) " +
+           "AND (a.summary IS NULL OR a.summary <> 'Analysis failed') " +
+           "ORDER BY a.id ASC")
+    List<LabelledArticle> findLabelledArticles(@Param("afterId") long afterId,
+                                               @Param("excludedModels") String excludedModels,
+                                               Pageable pageable);
+}
@@ -0,0 +1,25 @@
+package kz.kbtu.newsservice.repository;
+
+import kz.kbtu.common.entity.Company;
+import kz.kbtu.common.entity.CompanyAlias;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CompanyAliasRepository extends JpaRepository<CompanyAlias, Long> {
+
+    @Query("SELECT a.company FROM CompanyAlias a WHERE a.alias = :alias")
+    Optional<Company> findCompanyByAlias(@Param("alias") String alias);
+
+    // Another replica may record the same alias concurrently; the first one wins
+    @Modifying
+    @Query(value = "INSERT INTO company_aliases (alias, company_id, created_at, updated_at) " +
+                   "VALUES (:alias, :companyId, NOW(), NOW()) ON CONFLICT (alias) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("alias") String alias, @Param("companyId") Long companyId);
+}
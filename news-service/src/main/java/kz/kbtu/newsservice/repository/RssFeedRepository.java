@@ -0,0 +1,25 @@
+package kz.kbtu.newsservice.repository;
+
+import kz.kbtu.common.entity.RssFeed;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RssFeedRepository extends JpaRepository<RssFeed, Long> {
+
+    Optional<RssFeed> findByUrl(String url);
+
+    boolean existsByUrl(String url);
+
+    List<RssFeed> findByEnabledTrue();
+
+    @Query("SELECT f FROM RssFeed f WHERE f.enabled = true AND (f.nextPollAt IS NULL OR f.nextPollAt <= :now) " +
+           "ORDER BY f.nextPollAt ASC NULLS FIRST")
+    List<RssFeed> findDueFeeds(@Param("now") LocalDateTime now);
+}
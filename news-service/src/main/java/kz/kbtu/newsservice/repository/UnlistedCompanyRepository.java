@@ -0,0 +1,29 @@
+package kz.kbtu.newsservice.repository;
+
+import kz.kbtu.common.entity.UnlistedCompany;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface UnlistedCompanyRepository extends JpaRepository<UnlistedCompany, Long> {
+
+    Optional<UnlistedCompany> findByName(String name);
+
+    // Refreshes the expiry if the name was recorded before (e.g. by another replica)
+    @Modifying
+    @Query(value = "INSERT INTO unlisted_companies (name, expires_at, created_at, updated_at) " +
+                   "VALUES (:name, :expiresAt, NOW(), NOW()) " +
+                   "ON CONFLICT (name) DO UPDATE SET expires_at = EXCLUDED.expires_at, updated_at = NOW()",
+           nativeQuery = true)
+    int upsert(@Param("name") String name, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM UnlistedCompany u WHERE u.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,96 @@
+package kz.kbtu.newsservice.service;
+
+import kz.kbtu.common.entity.Article;
+import kz.kbtu.newsservice.pipeline.PipelineRun;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Finishes articles that were left half-processed (not scraped or not analyzed) because
+ * the JVM died or a later pipeline step failed. Such articles are skipped by the RSS dedup
+ * check, so without this worker they would never be completed.
+ *
+ * Runs shortly after startup and then on a fixed delay, draining the backlog in batches.
+ * Each article resumes from the stage where it stopped; failures are counted on the article
+ * and retried with exponential backoff until {@code recovery.max-attempts} is reached.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ArticleRecoveryService {
+
+    private final ArticleService articleService;
+    private final NewsProcessingService newsProcessingService;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${recovery.enabled:true}")
+    private boolean enabled;
+
+    @Value("${recovery.batch-size:20}")
+    private int batchSize;
+
+    @Value("${recovery.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    // Articles updated more recently than this are assumed to be in progress (possibly on another node)
+    @Value("${recovery.stale-after-minutes:15}")
+    private long staleAfterMinutes;
+
+    @Scheduled(initialDelayString = "${recovery.initial-delay-ms:30000}",
+            fixedDelayString = "${recovery.interval-ms:600000}")
+    public void recoverBacklog() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            drainBacklog();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Article recovery interrupted");
+        } catch (Exception e) {
+            log.error("Article recovery failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void drainBacklog() throws InterruptedException {
+        int recovered = 0;
+        int failed = 0;
+
+        for (int batchNo = 0; batchNo < maxBatchesPerRun; batchNo++) {
+            List<Article> candidates = articleService.findRecoverableArticles(
+                    Duration.ofMinutes(staleAfterMinutes), batchSize);
+
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            log.info("Recovering batch of {} half-processed articles", candidates.size());
+            PipelineRun run = newsProcessingService.resumeArticles(candidates);
+            if (run.getTotal() == 0) {
+                break; // everything in this page is already in the pipeline
+            }
+            recovered += run.getSucceeded();
+            failed += run.getFailed() + run.getSkipped();
+
+            // A short page means the backlog is drained; failed articles have moved their next attempt forward
+            if (candidates.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (recovered > 0 || failed > 0) {
+            log.info("Article recovery finished. Recovered: {}, Not recovered: {}", recovered, failed);
+        }
+    }
+}
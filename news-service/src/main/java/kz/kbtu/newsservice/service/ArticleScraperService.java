@@ -1,15 +1,23 @@
 package kz.kbtu.newsservice.service;
 
+import io.micrometer.core.instrument.Timer;
+import kz.kbtu.newsservice.fixtures.FixtureCorpus;
+import kz.kbtu.newsservice.metrics.NewsMetrics;
+import kz.kbtu.newsservice.throttle.HostRateLimiter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.util.Set;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class ArticleScraperService {
 
@@ -52,37 +60,83 @@ public class ArticleScraperService {
             "premium content"
     );
 
+    private final HostRateLimiter rateLimiter;
+    private final NewsMetrics metrics;
+    private final FixtureCorpus fixtures;
+
     public String scrapeArticle(String url) {
-        try {
-            log.info("Scraping article from: {}", url);
+        Document doc = fetchDocument(url);
+        if (doc == null) {
+            return null;
+        }
 
-            Document doc = Jsoup.connect(url)
-                    .userAgent(USER_AGENT)
-                    .timeout(TIMEOUT_MS)
-                    .followRedirects(true)
-                    .get();
+        if (isPaywalled(doc)) {
+            log.warn("Skipping paywalled article: {}", url);
+            return null;
+        }
 
-            if (isPaywalled(doc)) {
-                log.warn("Skipping paywalled article: {}", url);
-                return null;
-            }
+        String content = extractContent(doc);
 
-            String content = extractArticleHtml(doc);
+        if (content != null && !content.isEmpty()) {
+            log.info("Successfully scraped article ({} characters)", content.length());
+            return content;
+        } else {
+            log.warn("No content found for: {}", url);
+            return null;
+        }
+    }
 
-            if (content != null && !content.isEmpty()) {
-                log.info("Successfully scraped article ({} characters)", content.length());
-                return content;
-            } else {
-                log.warn("No content found for: {}", url);
-                return null;
+    /**
+     * Downloads and parses the article page, paced per host by {@link HostRateLimiter}.
+     * Returns null if the request fails.
+     */
+    public Document fetchDocument(String url) {
+        try {
+            if (!fixtures.isEnabled()) {
+                return download(url);
             }
+            String html = fixtures.fetch("html", url, String.class, () -> download(url).outerHtml());
+            return Jsoup.parse(html, url);
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (HttpStatusException e) {
+            if (e.getStatusCode() == 429 || e.getStatusCode() == 503) {
+                rateLimiter.penalize(url);
+            }
+            log.error("Failed to scrape article: {} (HTTP {})", url, e.getStatusCode());
+            return null;
         } catch (Exception e) {
             log.error("Failed to scrape article: {}", url, e);
             return null;
         }
     }
 
+    private Document download(String url) throws IOException, InterruptedException {
+        rateLimiter.acquire(url);
+        log.info("Scraping article from: {}", url);
+
+        Timer.Sample sample = Timer.start();
+        try {
+            return Jsoup.connect(url)
+                    .userAgent(USER_AGENT)
+                    .timeout(TIMEOUT_MS)
+                    .followRedirects(true)
+                    .get();
+        } finally {
+            sample.stop(metrics.getScrapeTimer());
+        }
+    }
+
+    /**
+     * Extracts the cleaned article text from an already fetched page.
+     * Returns null or an empty string if no article body is found.
+     */
+    public String extractContent(Document doc) {
+        return extractArticleHtml(doc);
+    }
+
     private String extractArticleHtml(Document doc) {
         Element articleBody = findArticleBody(doc);
 
@@ -157,7 +211,7 @@ public class ArticleScraperService {
         }
     }
 
-    private boolean isPaywalled(Document doc) {
+    public boolean isPaywalled(Document doc) {
         String text = doc.text().toLowerCase();
         for (String pattern : PAYWALL_PATTERNS) {
             if (text.contains(pattern)) {
@@ -2,12 +2,16 @@ package kz.kbtu.newsservice.service;
 
 import kz.kbtu.common.dto.ArticleAnalysisDto;
 import kz.kbtu.common.entity.*;
+import kz.kbtu.newsservice.metrics.NewsMetrics;
 import kz.kbtu.newsservice.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -21,6 +25,16 @@ public class ArticleService {
     private final CompanyService companyService;
     private final CountryRepository countryRepository;
     private final EconomySectorRepository sectorRepository;
+    private final NewsMetrics metrics;
+
+    @Value("${recovery.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${recovery.backoff-base-minutes:5}")
+    private long backoffBaseMinutes;
+
+    @Value("${recovery.backoff-max-minutes:1440}")
+    private long backoffMaxMinutes;
 
     @Transactional
     public Article createArticleFromRss(String cnbcId, String title, String url,
@@ -59,9 +73,37 @@ public class ArticleService {
 
     @Transactional
     public Article processAnalysis(Long articleId, ArticleAnalysisDto analysis, String modelName) {
+        return processAnalysis(articleId, analysis, modelName, resolveCompanies(analysis));
+    }
+
+    /**
+     * Persists the analysis using companies that were already resolved by {@link #resolveCompanies}.
+     * Names missing from the map are resolved on the fly.
+     */
+    @Transactional
+    public Article processAnalysis(Long articleId, ArticleAnalysisDto analysis, String modelName,
+                                   Map<String, Company> resolvedCompanies) {
         Article article = articleRepository.findById(articleId)
                 .orElseThrow(() -> new RuntimeException("Article not found: " + articleId));
 
+        return applyAnalysis(article, analysis, modelName, resolvedCompanies);
+    }
+
+    /**
+     * Replaces the analysis and predictions of a chunk of articles in one transaction,
+     * so a chunk is either fully migrated to the new analysis or left untouched.
+     */
+    @Transactional
+    public void replaceAnalyses(List<AnalysisUpdate> updates, String modelName) {
+        for (AnalysisUpdate update : updates) {
+            Article article = articleRepository.findById(update.articleId())
+                    .orElseThrow(() -> new RuntimeException("Article not found: " + update.articleId()));
+            applyAnalysis(article, update.analysis(), modelName, update.resolvedCompanies());
+        }
+    }
+
+    private Article applyAnalysis(Article article, ArticleAnalysisDto analysis, String modelName,
+                                  Map<String, Company> resolvedCompanies) {
         // Set basic analysis fields
         article.setSummary(analysis.getSummary());
         article.setSentiment(parseSentiment(analysis.getSentiment()));
@@ -73,7 +115,7 @@ public class ArticleService {
         Set<Company> mentionedCompanies = new HashSet<>();
         if (analysis.getCompanies() != null) {
             for (String companyName : analysis.getCompanies()) {
-                Company company = companyService.getOrCreateCompany(companyName);
+                Company company = lookupCompany(companyName, resolvedCompanies);
                 if (company != null) {
                     mentionedCompanies.add(company);
                 }
@@ -99,10 +141,11 @@ public class ArticleService {
         }
         article.setMentionedSectors(mentionedSectors);
 
-        // Process predictions
+        // Process predictions (replacing any from an earlier analysis)
+        article.getPredictions().clear();
         if (analysis.getPredictions() != null) {
             for (ArticleAnalysisDto.PredictionDto predDto : analysis.getPredictions()) {
-                Prediction prediction = createPrediction(article, predDto);
+                Prediction prediction = createPrediction(article, predDto, resolvedCompanies);
                 if (prediction != null) {
                     article.addPrediction(prediction);
                 }
@@ -122,7 +165,50 @@ public class ArticleService {
         return saved;
     }
 
-    private Prediction createPrediction(Article article, ArticleAnalysisDto.PredictionDto dto) {
+    /**
+     * Resolves every company name the analysis refers to (mentioned companies and
+     * COMPANY / MULTI_TICKER prediction targets). Runs outside the persistence transaction
+     * so slow external lookups do not hold a DB connection. A null value means the
+     * company could not be verified as public.
+     */
+    public Map<String, Company> resolveCompanies(ArticleAnalysisDto analysis) {
+        Set<String> names = new LinkedHashSet<>();
+        if (analysis.getCompanies() != null) {
+            names.addAll(analysis.getCompanies());
+        }
+        if (analysis.getPredictions() != null) {
+            for (ArticleAnalysisDto.PredictionDto predDto : analysis.getPredictions()) {
+                String scope = predDto.getScope();
+                if (predDto.getTargets() != null
+                        && ("COMPANY".equalsIgnoreCase(scope) || "MULTI_TICKER".equalsIgnoreCase(scope))) {
+                    names.addAll(predDto.getTargets());
+                }
+            }
+        }
+
+        Map<String, Company> resolved = new HashMap<>();
+        for (String name : names) {
+            if (name != null && !name.isBlank()) {
+                resolved.put(name, resolveCompany(name));
+            }
+        }
+        return resolved;
+    }
+
+    private Company lookupCompany(String companyName, Map<String, Company> resolvedCompanies) {
+        if (resolvedCompanies.containsKey(companyName)) {
+            return resolvedCompanies.get(companyName);
+        }
+        return resolveCompany(companyName);
+    }
+
+    private Company resolveCompany(String companyName) {
+        // Safe to call from several threads: CompanyService handles a concurrent creation of the same company
+        return metrics.getCompanyResolutionTimer().record(() -> companyService.getOrCreateCompany(companyName));
+    }
+
+    private Prediction createPrediction(Article article, ArticleAnalysisDto.PredictionDto dto,
+                                        Map<String, Company> resolvedCompanies) {
         try {
             Prediction.PredictionScope scope = parseScope(dto.getScope());
             Prediction.Direction direction = parseDirection(dto.getDirection());
@@ -143,7 +229,7 @@ public class ArticleService {
                     // Single company - get first target (now a company name, not ticker)
                     if (dto.getTargets() != null && !dto.getTargets().isEmpty()) {
                         String companyName = dto.getTargets().get(0);
-                        Company company = companyService.getOrCreateCompany(companyName);
+                        Company company = lookupCompany(companyName, resolvedCompanies);
                         if (company == null) {
                             log.info("Skipping COMPANY prediction — '{}' could not be verified as public", companyName);
                             return null;
@@ -157,7 +243,7 @@ public class ArticleService {
                     Set<Company> companies = new HashSet<>();
                     if (dto.getTargets() != null) {
                         for (String companyName : dto.getTargets()) {
-                            Company company = companyService.getOrCreateCompany(companyName);
+                            Company company = lookupCompany(companyName, resolvedCompanies);
                             if (company != null) {
                                 companies.add(company);
                             }
@@ -315,4 +401,48 @@ public class ArticleService {
     public Set<String> findExistingCnbcIds(Collection<String> cnbcIds) {
         return articleRepository.findExistingCnbcIds(cnbcIds);
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns up to {@code limit} half-processed articles that are due for another attempt
+     * and have not been touched for at least {@code staleAfter}.
+     */
+    public List<Article> findRecoverableArticles(Duration staleAfter, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return articleRepository.findRecoverableArticles(
+                maxAttempts, now, now.minus(staleAfter), PageRequest.of(0, limit));
+    }
+
+    /**
+     * Records a failed processing attempt and schedules the next one with exponential backoff.
+     * Non-retryable failures (e.g. paywalled articles) exhaust the remaining attempts at once.
+     */
+    @Transactional
+    public void recordProcessingFailure(Long articleId, String error, boolean retryable) {
+        articleRepository.findById(articleId).ifPresent(article -> {
+            int attempts = (article.getProcessingAttempts() != null ? article.getProcessingAttempts() : 0) + 1;
+            if (!retryable) {
+                attempts = Math.max(attempts, maxAttempts);
+            }
+
+            long backoffMinutes = Math.min(backoffMaxMinutes,
+                    backoffBaseMinutes * (1L << Math.min(attempts - 1, 20)));
+
+            article.setProcessingAttempts(attempts);
+            article.setNextAttemptAt(LocalDateTime.now().plusMinutes(backoffMinutes));
+            article.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+            articleRepository.save(article);
+
+            if (attempts >= maxAttempts) {
+                log.warn("Giving up on article {} after {} attempts: {}", articleId, attempts, error);
+            } else {
+                log.info("Article {} failed (attempt {}/{}), next attempt in {} min: {}",
+                        articleId, attempts, maxAttempts, backoffMinutes, error);
+            }
+        });
+    }
+
+    /**
+     * A fresh analysis of a stored article, with its companies already resolved.
+     */
+    public record AnalysisUpdate(Long articleId, ArticleAnalysisDto analysis, Map<String, Company> resolvedCompanies) {}
+}
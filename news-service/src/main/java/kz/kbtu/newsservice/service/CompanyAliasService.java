@@ -0,0 +1,112 @@
+package kz.kbtu.newsservice.service;
+
+import kz.kbtu.common.entity.Company;
+import kz.kbtu.newsservice.repository.CompanyAliasRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Resolves the spellings the LLM uses for a company ("Apple", "Apple Inc", "Apple Inc.") to the company.
+ *
+ * Names are normalized (case, punctuation, trailing legal forms such as Inc, Corp, Ltd, PLC) and looked up
+ * in a bounded in-memory LRU cache, then in the persisted alias table. Every name that {@link CompanyService}
+ * resolves the slow way is recorded in both, so a repeat mention costs neither a DB query nor an API call.
+ * Cached companies are detached entities; only their identity and basic fields are used by callers.
+ */
+@Service
+@Slf4j
+public class CompanyAliasService {
+
+    private static final Set<String> LEGAL_FORMS = Set.of(
+            "inc", "incorporated", "corp", "corporation", "co", "company", "ltd", "limited",
+            "plc", "llc", "lp", "ag", "sa", "se", "nv", "bv", "spa", "asa", "ab", "oyj", "kk");
+
+    private final CompanyAliasRepository aliasRepository;
+    private final Map<String, Company> cache;
+
+    public CompanyAliasService(CompanyAliasRepository aliasRepository,
+                               @Value("${company.alias-cache.max-size:10000}") int maxSize) {
+        this.aliasRepository = aliasRepository;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Company> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    public enum Source {
+        CACHE,
+        ALIAS
+    }
+
+    public record Match(Company company, Source source) {
+    }
+
+    /**
+     * @return the company recorded for this name variant, from memory if possible
+     */
+    public Optional<Match> find(String name) {
+        String alias = normalize(name);
+        if (alias.isEmpty()) {
+            return Optional.empty();
+        }
+        Company cached = cache.get(alias);
+        if (cached != null) {
+            return Optional.of(new Match(cached, Source.CACHE));
+        }
+        Optional<Company> persisted = aliasRepository.findCompanyByAlias(alias);
+        persisted.ifPresent(company -> cache.put(alias, company));
+        return persisted.map(company -> new Match(company, Source.ALIAS));
+    }
+
+    /**
+     * Records that {@code name} refers to {@code company}. An alias already taken by another company
+     * is kept as it is. The table is written first and the cache only follows a successful insert, so the
+     * cache never holds a mapping the table does not.
+     */
+    @Transactional
+    public void remember(String name, Company company) {
+        String alias = normalize(name);
+        if (alias.isEmpty() || company == null || company.getId() == null || cache.containsKey(alias)) {
+            return;
+        }
+        if (aliasRepository.insertIfAbsent(alias, company.getId()) > 0) {
+            cache.put(alias, company);
+            log.info("Recorded alias '{}' → {} ({})", alias, company.getName(), company.getTicker());
+        }
+        // Otherwise the alias belongs to whatever company the table has; find() caches that one
+    }
+
+    /**
+     * Lower case, letters and digits only, single spaces, without a leading "the" and trailing legal forms.
+     * The name is returned whole if nothing else would be left of it.
+     */
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        StringBuilder cleaned = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                cleaned.append(Character.toLowerCase(c));
+            } else if (c != '.' && c != '\'' && !cleaned.isEmpty() && cleaned.charAt(cleaned.length() - 1) != ' ') {
+                // "Inc." → "inc", "McDonald's" → "mcdonalds", other separators become a space
+                cleaned.append(' ');
+            }
+        }
+        List<String> words = new ArrayList<>(List.of(cleaned.toString().trim().split(" ")));
+        if (words.size() > 1 && words.getFirst().equals("the")) {
+            words.removeFirst();
+        }
+        while (words.size() > 1 && LEGAL_FORMS.contains(words.getLast())) {
+            words.removeLast();
+        }
+        return String.join(" ", words).trim();
+    }
+}
@@ -6,75 +6,125 @@ import kz.kbtu.common.dto.CompanyInfoDto;
 import kz.kbtu.common.entity.Company;
 import kz.kbtu.common.entity.Country;
 import kz.kbtu.common.entity.EconomySector;
+import kz.kbtu.common.llm.LlmPriority;
+import kz.kbtu.common.llm.LlmResponseCache;
+import kz.kbtu.common.llm.OllamaClient;
+import kz.kbtu.newsservice.fixtures.FixtureCorpus;
+import kz.kbtu.newsservice.llm.Interrupts;
+import kz.kbtu.newsservice.llm.OllamaBackendPool;
+import kz.kbtu.newsservice.metrics.NewsMetrics;
+import kz.kbtu.newsservice.prompt.PromptTemplate;
+import kz.kbtu.newsservice.prompt.ReferenceDataPrompts;
 import kz.kbtu.newsservice.repository.CompanyRepository;
 import kz.kbtu.newsservice.repository.CountryRepository;
 import kz.kbtu.newsservice.repository.EconomySectorRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class CompanyService {
 
     private final CompanyRepository companyRepository;
+    private final CompanyAliasService aliasService;
     private final CountryRepository countryRepository;
     private final EconomySectorRepository sectorRepository;
+    private final ReferenceDataPrompts referencePrompts;
     private final TickerLookupService tickerLookupService;
     private final FinnhubService finnhubService;
     private final WikipediaService wikipediaService;
+    private final OllamaBackendPool ollamaPool;
+    private final OllamaClient ollamaClient;
+    private final FixtureCorpus fixtures;
+    private final LlmResponseCache responseCache;
+    private final NewsMetrics metrics;
     private final ObjectMapper objectMapper;
-
-    private final WebClient ollamaClient;
+    private final TransactionTemplate createTransaction;
 
     @Value("${ollama.model:qwen2.5:14b}")
     private String model;
 
     public CompanyService(CompanyRepository companyRepository,
+                         CompanyAliasService aliasService,
                          CountryRepository countryRepository,
                          EconomySectorRepository sectorRepository,
+                         ReferenceDataPrompts referencePrompts,
                          TickerLookupService tickerLookupService,
                          FinnhubService finnhubService,
-                         WikipediaService wikipediaService) {
+                         WikipediaService wikipediaService,
+                         OllamaBackendPool ollamaPool,
+                         OllamaClient ollamaClient,
+                         FixtureCorpus fixtures,
+                         LlmResponseCache responseCache,
+                         NewsMetrics metrics,
+                         PlatformTransactionManager transactionManager) {
         this.companyRepository = companyRepository;
+        this.aliasService = aliasService;
         this.countryRepository = countryRepository;
         this.sectorRepository = sectorRepository;
+        this.referencePrompts = referencePrompts;
         this.tickerLookupService = tickerLookupService;
         this.finnhubService = finnhubService;
         this.wikipediaService = wikipediaService;
+        this.ollamaPool = ollamaPool;
+        this.ollamaClient = ollamaClient;
+        this.fixtures = fixtures;
+        this.responseCache = responseCache;
+        this.metrics = metrics;
         this.objectMapper = new ObjectMapper();
-        this.ollamaClient = WebClient.builder()
-                .baseUrl("http://localhost:11434")
-                .build();
+        // Commits the new company on its own, so a unique violation never spoils the caller's transaction
+        this.createTransaction = new TransactionTemplate(transactionManager);
+        this.createTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     /**
      * Resolves a company by name. Flow:
+     * 0. Known name variant: in-memory alias cache, then alias table ({@link CompanyAliasService})
      * 1. Search DB by name (case-insensitive)
      * 2. Call Twelve Data to verify the company is publicly traded and get ticker
      * 3. Check DB by ticker (may exist under different name mention)
      * 4. Enrich with Finnhub (logo, market cap, website) + Wikipedia (description)
      * 5. Map Finnhub industry → our sector codes via LLM
      * 6. Create in DB
+     * Names resolved by steps 1-6 are recorded as aliases.
+     *
+     * Safe to call concurrently without a lock: nothing is held across the external calls, and a company
+     * that another thread or replica created in the meantime is detected by the unique ticker, see
+     * {@link #createCompany}.
      */
-    @Transactional
     public Company getOrCreateCompany(String companyName) {
+        // 0. Check known spellings
+        Optional<CompanyAliasService.Match> alias = aliasService.find(companyName);
+        if (alias.isPresent()) {
+            log.debug("Company '{}' resolved by alias ({}) to '{}'",
+                    companyName, alias.get().source(), alias.get().company().getName());
+            metrics.countCompanyLookup(alias.get().source().name().toLowerCase());
+            return alias.get().company();
+        }
+
         // 1. Check if company exists by name
         Optional<Company> existingByName = companyRepository.findByNameIgnoreCase(companyName);
         if (existingByName.isPresent()) {
             log.info("Company '{}' found in database by name", companyName);
+            metrics.countCompanyLookup("name");
+            aliasService.remember(companyName, existingByName.get());
             return existingByName.get();
         }
 
         // 2. Verify via Twelve Data API
-        TickerLookupService.TickerResult tickerResult = tickerLookupService.lookupTicker(companyName);
+        TickerLookupService.TickerResult tickerResult = fixtures.fetch("ticker", companyName,
+                TickerLookupService.TickerResult.class, () -> tickerLookupService.lookupTicker(companyName));
         if (tickerResult == null) {
             log.warn("Company '{}' not found on any major exchange — skipping (likely private)", companyName);
+            metrics.countCompanyLookup("not_public");
             return null;
         }
 
@@ -83,14 +133,46 @@ public class CompanyService {
         if (existingByTicker.isPresent()) {
             log.info("Company '{}' resolved to ticker {} which already exists in DB as '{}'",
                     companyName, tickerResult.ticker(), existingByTicker.get().getName());
+            metrics.countCompanyLookup("ticker");
+            aliasService.remember(companyName, existingByTicker.get());
             return existingByTicker.get();
         }
 
         // 4. New verified public company — enrich from multiple sources
         log.info("Creating new company: '{}' → {} on {}", companyName, tickerResult.ticker(), tickerResult.exchange());
-        CompanyInfoDto companyInfo = enrichCompanyData(tickerResult);
+        CompanyInfoDto companyInfo = fixtures.fetch("company", tickerResult.ticker(),
+                CompanyInfoDto.class, () -> enrichCompanyData(tickerResult));
+
+        Optional<Company> created = createCompany(companyInfo);
+        if (created.isEmpty()) {
+            Company concurrent = companyRepository.findByTickerIgnoreCase(companyInfo.getTicker()).orElseThrow();
+            log.info("Company {} was created concurrently, using '{}'", companyInfo.getTicker(), concurrent.getName());
+            metrics.countCompanyLookup("ticker");
+            aliasService.remember(companyName, concurrent);
+            return concurrent;
+        }
+        metrics.countCompanyLookup("created");
+        aliasService.remember(companyName, created.get());
+        aliasService.remember(created.get().getName(), created.get());
+        return created.get();
+    }
 
-        return createCompanyFromDto(companyInfo);
+    /**
+     * Inserts the company in a transaction of its own.
+     *
+     * @return empty if another thread or replica inserted the same ticker since it was checked
+     */
+    private Optional<Company> createCompany(CompanyInfoDto companyInfo) {
+        try {
+            return Optional.of(createTransaction.execute(status -> createCompanyFromDto(companyInfo)));
+        } catch (DataIntegrityViolationException e) {
+            if (companyRepository.existsByTicker(companyInfo.getTicker().toUpperCase())) {
+                return Optional.empty();
+            }
+            // The conflict was the company's country, which exists now
+            log.info("Concurrent insert while creating {}, retrying: {}", companyInfo.getTicker(), e.getMessage());
+            return Optional.of(createTransaction.execute(status -> createCompanyFromDto(companyInfo)));
+        }
     }
 
     @Transactional
@@ -155,6 +237,17 @@ public class CompanyService {
         return builder.build();
     }
 
+    private static final PromptTemplate SECTOR_MAPPING_PROMPT = PromptTemplate.compile("""
+            Map the industry given below to 1-3 sector codes from the available list.
+
+            Respond ONLY with a JSON array of sector codes. Example: ["TECH", "CONSUMER"]
+
+            AVAILABLE SECTORS:
+            {{sectors}}
+
+            INDUSTRY: {{industry}}
+            """);
+
     /**
      * Uses LLM to map a Finnhub industry string to our economy sector codes.
      * The response is tiny (~20 tokens) so truncation is not a concern.
@@ -164,23 +257,15 @@ public class CompanyService {
             return List.of();
         }
 
-        List<String> availableSectors = sectorRepository.findAll().stream()
-                .map(s -> s.getCode() + " (" + s.getName() + ")")
-                .collect(Collectors.toList());
-
-        String prompt = String.format("""
-            Map the following industry to 1-3 sector codes from the available list.
-
-            INDUSTRY: %s
-
-            AVAILABLE SECTORS:
-            %s
-
-            Respond ONLY with a JSON array of sector codes. Example: ["TECH", "CONSUMER"]
-            """, finnhubIndustry, String.join(", ", availableSectors));
+        String prompt = SECTOR_MAPPING_PROMPT.render(Map.of(
+                "sectors", referencePrompts.sectorCodes(),
+                "industry", finnhubIndustry));
 
+        // The same Finnhub industry comes up for many companies, so the mapping is usually a cache hit
+        String cacheKey = responseCache.key(model, prompt, generateOptions(512));
+        Optional<String> cached = responseCache.get(cacheKey);
         try {
-            String response = generateFromOllama(prompt, 512);
+            String response = cached.isPresent() ? cached.get() : generateFromOllama(prompt, 512);
             log.info("LLM response for sector finding: {}, industry: {}", response, finnhubIndustry);
             String cleaned = cleanJsonResponse(response);
             JsonNode root = objectMapper.readTree(cleaned);
@@ -189,41 +274,76 @@ public class CompanyService {
             if (root.isArray()) {
                 root.forEach(item -> codes.add(item.asText()));
             }
+            if (cached.isEmpty()) {
+                responseCache.put(cacheKey, model, response);
+            }
             log.info("Mapped industry '{}' → sectors: {}", finnhubIndustry, codes);
             return codes;
+        } catch (InterruptedException e) {
+            // Keeps the flag, which the pool's acquire has already cleared, for the rest of the resolve work
+            Thread.currentThread().interrupt();
+            return List.of();
         } catch (Exception e) {
+            if (cached.isPresent()) {
+                responseCache.invalidate(cacheKey);
+            }
             log.warn("LLM failed to map industry '{}' to sectors: {}", finnhubIndustry, e.getMessage());
             return List.of();
         }
     }
 
-    private String generateFromOllama(String prompt, int maxTokens) {
+    private Map<String, Object> generateOptions(int maxTokens) {
+        return Map.of(
+                "temperature", 0.1,
+                "num_predict", maxTokens,
+                "top_p", 0.9
+        );
+    }
+
+    private String generateFromOllama(String prompt, int maxTokens) throws InterruptedException {
+        Map<String, Object> options = generateOptions(maxTokens);
         Map<String, Object> request = Map.of(
                 "model", model,
                 "prompt", prompt,
                 "stream", false,
-                "options", Map.of(
-                        "temperature", 0.1,
-                        "num_predict", maxTokens,
-                        "top_p", 0.9
-                )
+                "options", options
         );
+        String fixtureKey = responseCache.canonicalRequest(model, prompt, options);
+        if (fixtures.isReplaying()) {
+            // A missing fixture must not mark the backend unhealthy; there is no backend in replay
+            Map<String, Object> response = fixtures.replay("llm", fixtureKey, Map.class);
+            if (response != null && response.containsKey("response")) {
+                return (String) response.get("response");
+            }
+            throw new IllegalStateException("Recorded generation has no response: " + fixtureKey);
+        }
 
-        Map<String, Object> response = ollamaClient.post()
-                .uri("/api/generate")
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .block();
+        // Short generation that a resolve worker waits on with the article in hand, so it goes ahead of analyses
+        OllamaBackendPool.Lease lease = ollamaPool.acquire(LlmPriority.INTERACTIVE);
+        Map<String, Object> response;
+        try {
+            response = fixtures.fetch("llm", fixtureKey, Map.class,
+                    () -> ollamaClient.generate("company", lease.url(), request).block());
+        } catch (RuntimeException e) {
+            if (Interrupts.isInterrupt(e)) {
+                // Shutting down says nothing about the backend
+                lease.release();
+                Thread.currentThread().interrupt();
+                throw (InterruptedException) new InterruptedException("Sector mapping interrupted").initCause(e);
+            }
+            lease.failure(e.getMessage());
+            throw e;
+        }
 
         if (response != null && response.containsKey("response")) {
+            lease.success(response.get("eval_count") instanceof Number n ? n.intValue() : 0);
             return (String) response.get("response");
         }
+        lease.failure("Invalid response");
         throw new RuntimeException("Invalid response from Ollama");
     }
 
-    @Transactional
-    protected Company createCompanyFromDto(CompanyInfoDto dto) {
+    private Company createCompanyFromDto(CompanyInfoDto dto) {
         Country country = getOrCreateCountry(dto.getCountryCode(), dto.getCountryName());
 
         Set<EconomySector> sectors = new HashSet<>();
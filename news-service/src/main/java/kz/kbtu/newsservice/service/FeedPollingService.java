@@ -0,0 +1,139 @@
+package kz.kbtu.newsservice.service;
+
+import kz.kbtu.common.entity.RssFeed;
+import kz.kbtu.newsservice.dto.RssFeedRequestDto;
+import kz.kbtu.newsservice.jobs.ScrapeJob;
+import kz.kbtu.newsservice.repository.RssFeedRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Polls the feeds in the {@link RssFeed} registry. A scheduler tick picks up feeds whose
+ * {@code nextPollAt} has passed and submits a scrape job for them. Each feed is part of at
+ * most one unfinished job: a trigger while the feed is still running is ignored.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FeedPollingService {
+
+    private final RssFeedRepository feedRepository;
+    private final ScrapeJobService scrapeJobService;
+
+    @Value("${feeds.polling-enabled:true}")
+    private boolean pollingEnabled;
+
+    @Scheduled(initialDelayString = "${feeds.initial-delay-ms:10000}",
+            fixedDelayString = "${feeds.scheduler-tick-ms:15000}")
+    public void pollDueFeeds() {
+        if (!pollingEnabled) {
+            return;
+        }
+        for (RssFeed feed : feedRepository.findDueFeeds(LocalDateTime.now())) {
+            try {
+                trigger(List.of(feed), "scheduler");
+            } catch (TaskRejectedException e) {
+                log.warn("Scrape job queue is full, feed '{}' will be retried on the next tick", feed.getName());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Submits one job for every enabled feed that is not already running.
+     *
+     * @return empty if all enabled feeds are already running
+     * @throws TaskRejectedException if the job queue is full
+     */
+    public Optional<ScrapeJob> triggerAllFeeds() {
+        return trigger(feedRepository.findByEnabledTrue(), "manual");
+    }
+
+    /**
+     * @return empty if the feed is already running
+     * @throws TaskRejectedException if the job queue is full
+     */
+    public Optional<ScrapeJob> triggerFeed(RssFeed feed) {
+        return trigger(List.of(feed), "manual");
+    }
+
+    public boolean isRunning(Long feedId) {
+        return scrapeJobService.isRunning(feedId);
+    }
+
+    public Optional<RssFeed> findFeed(Long feedId) {
+        return feedRepository.findById(feedId);
+    }
+
+    public List<RssFeed> findAllFeeds() {
+        return feedRepository.findAll();
+    }
+
+    /**
+     * Adds a feed to the registry; a URL that is already registered returns the existing feed unchanged.
+     */
+    public RssFeed registerFeed(RssFeedRequestDto request) {
+        String url = request.getUrl().trim();
+        RssFeed feed = RssFeed.builder()
+                .name(request.getName() == null || request.getName().isBlank() ? abbreviate(url) : request.getName().trim())
+                .url(url)
+                .build();
+        if (request.getPollIntervalSeconds() != null) {
+            feed.setPollIntervalSeconds(request.getPollIntervalSeconds());
+        }
+        if (request.getJitterSeconds() != null) {
+            feed.setJitterSeconds(request.getJitterSeconds());
+        }
+        if (request.getEnabled() != null) {
+            feed.setEnabled(request.getEnabled());
+        }
+
+        Optional<RssFeed> existing = feedRepository.findByUrl(feed.getUrl());
+        if (existing.isPresent()) {
+            log.info("Feed already registered: {}", feed.getUrl());
+            return existing.get();
+        }
+        RssFeed saved = feedRepository.save(feed);
+        log.info("Registered feed '{}' ({}), polled every {}s", saved.getName(), saved.getUrl(),
+                saved.getPollIntervalSeconds());
+        return saved;
+    }
+
+    private Optional<ScrapeJob> trigger(List<RssFeed> feeds, String trigger) {
+        List<RssFeed> idle = feeds.stream()
+                .filter(feed -> !scrapeJobService.isRunning(feed.getId()))
+                .toList();
+        if (idle.isEmpty()) {
+            log.debug("All {} feed(s) are still running, skipping trigger", feeds.size());
+            return Optional.empty();
+        }
+
+        Optional<ScrapeJob> job = scrapeJobService.submit(idle, trigger);
+        job.ifPresent(j -> idle.forEach(this::scheduleNextPoll));
+        return job;
+    }
+
+    // name is limited to 100 characters, the URL to 1000
+    private static String abbreviate(String url) {
+        return url.length() <= 100 ? url : url.substring(0, 100);
+    }
+
+    private void scheduleNextPoll(RssFeed feed) {
+        int jitter = feed.getJitterSeconds() != null && feed.getJitterSeconds() > 0
+                ? ThreadLocalRandom.current().nextInt(feed.getJitterSeconds() + 1)
+                : 0;
+        LocalDateTime now = LocalDateTime.now();
+        feed.setLastPolledAt(now);
+        feed.setNextPollAt(now.plusSeconds(feed.getPollIntervalSeconds() + jitter));
+        feedRepository.save(feed);
+    }
+}
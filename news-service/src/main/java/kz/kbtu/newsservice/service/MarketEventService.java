@@ -16,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -26,6 +27,35 @@ public class MarketEventService {
     private final CompanyRepository companyRepository;
     private final EconomySectorRepository sectorRepository;
 
+    /**
+     * Fills in {@code companyTicker} for events from a combined analysis, using the companies
+     * resolved for the same article (mentioned name → company, null if not public).
+     */
+    public void linkCompanies(List<MarketEventDto> events, Map<String, Company> resolvedCompanies) {
+        for (MarketEventDto event : events) {
+            String name = event.getCompanyName();
+            if (event.getCompanyTicker() != null || name == null || name.isBlank()) {
+                continue;
+            }
+
+            Company company = resolvedCompanies.get(name);
+            if (company == null) {
+                company = resolvedCompanies.entrySet().stream()
+                        .filter(e -> e.getValue() != null)
+                        .filter(e -> e.getKey().equalsIgnoreCase(name) || e.getValue().getName().equalsIgnoreCase(name))
+                        .map(Map.Entry::getValue)
+                        .findFirst()
+                        .orElse(null);
+            }
+
+            if (company != null) {
+                event.setCompanyTicker(company.getTicker());
+            } else {
+                log.debug("Event '{}' names '{}', which is not a resolved public company", event.getTitle(), name);
+            }
+        }
+    }
+
     @Transactional
     public void saveEvents(List<MarketEventDto> dtos, Article sourceArticle) {
         for (MarketEventDto dto : dtos) {
@@ -1,18 +1,47 @@
 package kz.kbtu.newsservice.service;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import kz.kbtu.common.dto.ArticleAnalysisDto;
 import kz.kbtu.common.dto.MarketEventDto;
 import kz.kbtu.common.dto.RssArticleDto;
 import kz.kbtu.common.entity.Article;
-import kz.kbtu.common.entity.Company;
+import io.micrometer.core.instrument.Timer;
+import kz.kbtu.newsservice.kafka.ArticleIngestionPublisher;
+import kz.kbtu.newsservice.llm.OllamaCircuitBreaker;
+import kz.kbtu.newsservice.llm.OllamaCircuitEvent;
+import kz.kbtu.newsservice.llm.OllamaUnavailableException;
+import kz.kbtu.newsservice.metrics.NewsMetrics;
+import kz.kbtu.newsservice.pipeline.ArticleWork;
+import kz.kbtu.newsservice.pipeline.IngestionPipeline;
+import kz.kbtu.newsservice.pipeline.PipelineRun;
+import kz.kbtu.newsservice.pipeline.Stage;
+import kz.kbtu.newsservice.prefilter.PredictiveFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,132 +55,482 @@ public class NewsProcessingService {
     private final OllamaAnalysisService ollamaService;
     private final ArticleService articleService;
     private final MarketEventService marketEventService;
+    private final Environment environment;
+    private final ObjectProvider<ArticleIngestionPublisher> publisherProvider;
+    private final NewsMetrics metrics;
+    private final OllamaCircuitBreaker circuitBreaker;
+    private final PredictiveFilter predictiveFilter;
+
+    @Value("${pipeline.max-in-flight:32}")
+    private int maxInFlight;
+
+    @Value("${ollama.circuit.max-parked:1000}")
+    private int maxParked;
+
+    private IngestionPipeline pipeline;
+
+    // cnbcIds currently inside the pipeline, so the recovery worker does not pick them up twice
+    private final Set<String> activeCnbcIds = ConcurrentHashMap.newKeySet();
+
+    // Analyzed-stage articles set aside while the Ollama circuit is open; they keep their claim
+    // in activeCnbcIds and are replayed from ANALYZE once the circuit lets requests through again
+    private final Queue<ArticleWork> parked = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger parkedCount = new AtomicInteger();
+    private final AtomicBoolean replaying = new AtomicBoolean();
+
+    @PostConstruct
+    void startPipeline() {
+        pipeline = new IngestionPipeline(maxInFlight);
+        configureStage(Stage.FETCH, 4, 16, this::fetchStage);
+        configureStage(Stage.EXTRACT, 2, 16, this::extractStage);
+        // LLM stages only bound the workers; actual Ollama parallelism is set by OllamaBackendPool
+        configureStage(Stage.ANALYZE, 8, 8, this::analyzeStage);
+        // Lookups mostly wait on Twelve Data, Finnhub and sector mapping, so several run at once;
+        // CompanyService handles two workers creating the same company
+        configureStage(Stage.RESOLVE, 4, 16, this::resolveStage);
+        configureStage(Stage.PERSIST, 2, 16, this::persistStage);
+        configureStage(Stage.EVENTS, 4, 8, this::eventsStage);
+        configureStage(Stage.ARCHIVE, 1, 32, this::archiveStage);
+        pipeline.onComplete(this::onArticleComplete);
+        pipeline.start();
+        metrics.bindPipeline(pipeline, EnumSet.allOf(Stage.class), activeCnbcIds);
+        metrics.bindParked(parkedCount);
+    }
+
+    @PreDestroy
+    void stopPipeline() {
+        pipeline.stop();
+        if (!parked.isEmpty()) {
+            // Their content is stored, so the recovery worker resumes them after a restart
+            log.info("{} parked articles left to recovery", parked.size());
+        }
+    }
+
+    private void configureStage(Stage stage, int defaultConcurrency, int defaultQueueCapacity,
+                                IngestionPipeline.StageHandler handler) {
+        String prefix = "pipeline.stages." + stage.getKey();
+        int concurrency = environment.getProperty(prefix + ".concurrency", Integer.class, defaultConcurrency);
+        int queueCapacity = environment.getProperty(prefix + ".queue-capacity", Integer.class, defaultQueueCapacity);
+        Timer timer = metrics.stageTimer(stage);
+        pipeline.stage(stage, concurrency, queueCapacity, work -> {
+            Timer.Sample sample = Timer.start();
+            try {
+                return handler.handle(work);
+            } finally {
+                sample.stop(timer);
+            }
+        });
+    }
 
     public void processRssFeed(String feedUrl) {
+        processRssFeed(feedUrl, run -> { });
+    }
+
+    /**
+     * Fetches the feed and processes its new entries, blocking until they are done.
+     *
+     * @param onRunStarted receives the {@link PipelineRun} before its articles are submitted,
+     *                     so callers can follow progress or cancel it
+     */
+    public void processRssFeed(String feedUrl, Consumer<PipelineRun> onRunStarted) {
         log.info("Starting RSS feed processing with LLM analysis and database persistence...");
 
-        // Check if Ollama is available
-        if (!ollamaService.isAvailable()) {
+        ArticleIngestionPublisher publisher = publisherProvider.getIfAvailable();
+
+        // Check if Ollama is available (in Kafka mode the consumers need it, not the poller)
+        if (publisher == null && !ollamaService.isAvailable()) {
             log.error("Ollama is not available! Start it with: ollama serve");
-            return;
+            throw new IllegalStateException("Ollama is not available");
         }
 
-        List<RssArticleDto> articles = rssFeedService.fetchFeed(feedUrl);
+        List<RssArticleDto> articles = metrics.getRssFetchTimer().record(() -> rssFeedService.fetchFeed(feedUrl));
 
         if (articles.isEmpty()) {
             log.warn("No articles found in RSS feed");
             return;
         }
 
+        if (publisher != null) {
+            // Kafka mode: the consumer group scrapes, analyzes and persists the new entries
+            Set<String> existingIds = articleService.findExistingCnbcIds(
+                    articles.stream().map(RssArticleDto::getExternalId).collect(Collectors.toList())
+            );
+            List<RssArticleDto> newArticles = articles.stream()
+                    .filter(a -> !existingIds.contains(a.getExternalId()))
+                    .toList();
+            newArticles.forEach(publisher::publish);
+            metrics.countArticles("duplicate", existingIds.size());
+            log.info("Published {} new articles from {} ({} already in DB)",
+                    newArticles.size(), feedUrl, existingIds.size());
+            return;
+        }
+
+        PipelineRun run;
+        try {
+            run = processArticles(articles, feedUrl, onRunStarted);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("RSS feed processing interrupted: {}", feedUrl);
+            return;
+        }
+
+        fileStorageService.saveAllArticlesSummary(articles.size(), run.getSucceeded());
+    }
+
+    /**
+     * Processes RSS entries through the pipeline and blocks until all of them are done.
+     * Entries already in the DB, or already being processed by another run, are left out.
+     */
+    public PipelineRun processArticles(List<RssArticleDto> articles, String label) throws InterruptedException {
+        return processArticles(articles, label, run -> { });
+    }
+
+    public PipelineRun processArticles(List<RssArticleDto> articles, String label,
+                                       Consumer<PipelineRun> onRunStarted) throws InterruptedException {
         // Batch check existing articles in one query
         Set<String> existingIds = articleService.findExistingCnbcIds(
                 articles.stream().map(RssArticleDto::getExternalId).collect(Collectors.toList())
         );
 
-        log.info("Processing {} articles ({} already in DB)...", articles.size(), existingIds.size());
+        // Claim new articles; another feed may list the same story and already be processing it
+        List<RssArticleDto> newArticles = new ArrayList<>();
+        int claimedElsewhere = 0;
+        for (RssArticleDto rssArticle : articles) {
+            if (existingIds.contains(rssArticle.getExternalId())) {
+                continue;
+            }
+            if (activeCnbcIds.add(rssArticle.getExternalId())) {
+                newArticles.add(rssArticle);
+            } else {
+                claimedElsewhere++;
+            }
+        }
+
+        metrics.countArticles("duplicate", existingIds.size() + claimedElsewhere);
+        log.info("Processing {} articles ({} already in DB, {} in progress elsewhere)...",
+                articles.size(), existingIds.size(), claimedElsewhere);
+
+        PipelineRun run = new PipelineRun(label, newArticles.size());
+        onRunStarted.accept(run);
+        submitClaimed(run, newArticles.stream().map(a -> new ArticleWork(run, a)).toList());
+        run.await();
+
+        long elapsedMs = Math.max(1, Duration.between(run.getStartedAt(), LocalDateTime.now()).toMillis());
+        log.info("Processing of {} completed in {} ms ({} articles/min). Success: {}/{}, Skipped: {}, Failed: {}",
+                label, elapsedMs, String.format("%.1f", run.getCompleted() * 60_000.0 / elapsedMs),
+                run.getSucceeded(), articles.size(),
+                existingIds.size() + claimedElsewhere + run.getSkipped(), run.getFailed());
+        return run;
+    }
+
+    /**
+     * Re-submits half-processed articles, resuming each one from the stage where it stopped:
+     * articles without content are scraped again, scraped ones go straight to analysis.
+     * Articles that are already in the pipeline are left out. Blocks until the batch has
+     * left the pipeline.
+     */
+    public PipelineRun resumeArticles(List<Article> articles) throws InterruptedException {
+        List<Article> claimed = articles.stream()
+                .filter(a -> activeCnbcIds.add(a.getCnbcId()))
+                .toList();
+
+        PipelineRun run = new PipelineRun("recovery", claimed.size());
+        List<ArticleWork> works = new ArrayList<>();
+        for (Article article : claimed) {
+            RssArticleDto source = RssArticleDto.builder()
+                    .externalId(article.getCnbcId())
+                    .title(article.getTitle())
+                    .url(article.getUrl())
+                    .description(article.getDescription())
+                    .publishedAt(article.getPublishedAt())
+                    .build();
+
+            ArticleWork work = new ArticleWork(run, source);
+            work.setArticleId(article.getId());
+            if (Boolean.TRUE.equals(article.getIsScraped())
+                    && article.getContent() != null && !article.getContent().isBlank()) {
+                work.setContent(article.getContent());
+            }
 
-        int successCount = 0;
-        int skippedCount = existingIds.size();
+            log.info("Resuming article {} from {} (attempt {}): {}", article.getId(), work.entryStage(),
+                    (article.getProcessingAttempts() != null ? article.getProcessingAttempts() : 0) + 1,
+                    article.getTitle());
+            works.add(work);
+        }
 
-        for (int i = 0; i < articles.size(); i++) {
-            RssArticleDto rssArticle = articles.get(i);
+        submitClaimed(run, works);
+        run.await();
+        return run;
+    }
 
-            if (existingIds.contains(rssArticle.getExternalId())) {
-                log.info("[{}/{}] Already processed, skipping: {}", i + 1, articles.size(), rssArticle.getTitle());
-                continue;
+    /**
+     * Submits articles whose cnbcIds were already added to {@link #activeCnbcIds}.
+     * On interruption the remaining claims are released and the run is cancelled.
+     */
+    private void submitClaimed(PipelineRun run, List<ArticleWork> works) throws InterruptedException {
+        int submitted = 0;
+        try {
+            for (ArticleWork work : works) {
+                pipeline.submit(work, work.entryStage());
+                submitted++;
             }
+        } catch (InterruptedException e) {
+            for (ArticleWork work : works.subList(submitted, works.size())) {
+                activeCnbcIds.remove(work.getSource().getExternalId());
+            }
+            run.abandon(works.size() - submitted);
+            run.cancel();
+            throw e;
+        }
+    }
+
+    private void onArticleComplete(ArticleWork work, Stage stage, IngestionPipeline.Outcome outcome, Exception error) {
+        metrics.countArticles(outcomeTag(outcome, work.getSkipReason()), 1);
+        if (work.getSkipReason() == ArticleWork.SkipReason.PARKED) {
+            // Still claimed until the replay completes it
+            return;
+        }
+        activeCnbcIds.remove(work.getSource().getExternalId());
 
-            log.info("[{}/{}] Processing: {}", i + 1, articles.size(), rssArticle.getTitle());
+        if (work.getArticleId() == null || outcome == IngestionPipeline.Outcome.SUCCEEDED) {
+            return;
+        }
 
+        if (outcome == IngestionPipeline.Outcome.FAILED) {
+            String message = error != null ? error.getClass().getSimpleName() + ": " + error.getMessage() : "unknown";
+            articleService.recordProcessingFailure(work.getArticleId(), stage + " failed: " + message, true);
+            return;
+        }
+
+        if (work.getSkipReason() == null) {
+            return;
+        }
+        switch (work.getSkipReason()) {
+            case FETCH_FAILED, NO_CONTENT ->
+                    articleService.recordProcessingFailure(work.getArticleId(), work.getSkipReason().name(), true);
+            case PAYWALLED ->
+                    articleService.recordProcessingFailure(work.getArticleId(), work.getSkipReason().name(), false);
+            case CANCELLED, PARKED -> { }
+        }
+    }
+
+    private String outcomeTag(IngestionPipeline.Outcome outcome, ArticleWork.SkipReason skipReason) {
+        if (outcome != IngestionPipeline.Outcome.SKIPPED || skipReason == null) {
+            return outcome.name().toLowerCase();
+        }
+        return switch (skipReason) {
+            case FETCH_FAILED -> "fetch_failed";
+            case PAYWALLED -> "paywalled";
+            case NO_CONTENT -> "empty";
+            case CANCELLED -> "cancelled";
+            case PARKED -> "parked";
+        };
+    }
+
+    @EventListener
+    void onCircuitStateChanged(OllamaCircuitEvent event) {
+        replayParkedIfClosed();
+    }
+
+    private void replayParkedIfClosed() {
+        if (parked.isEmpty() || circuitBreaker.isOpen() || !replaying.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("parked-replay").start(() -> {
             try {
+                replayParked();
+            } finally {
+                replaying.set(false);
+            }
+            // Articles parked while the replay was running
+            replayParkedIfClosed();
+        });
+    }
 
-                // Step 1: Create article record from RSS
-                Article article = articleService.createArticleFromRss(
-                        rssArticle.getExternalId(),
-                        rssArticle.getTitle(),
-                        rssArticle.getUrl(),
-                        rssArticle.getDescription(),
-                        rssArticle.getPublishedAt()
-                );
-
-                if (article == null) {
-                    log.warn("Failed to create article record for: {}", rssArticle.getTitle());
-                    continue;
-                }
+    /**
+     * Resubmits all parked articles at the ANALYZE stage under their existing claims and waits for them.
+     * Articles that run into an open circuit again are simply parked again.
+     */
+    private void replayParked() {
+        List<ArticleWork> works = new ArrayList<>();
+        ArticleWork parkedWork;
+        while ((parkedWork = parked.poll()) != null) {
+            parkedCount.decrementAndGet();
+            works.add(parkedWork);
+        }
+        if (works.isEmpty()) {
+            return;
+        }
 
-                // Step 2: Scrape article content
-                String content = scraperService.scrapeArticle(rssArticle.getUrl());
-
-                if (content != null && !content.isEmpty()) {
-                    // Update article with scraped content
-                    article = articleService.updateWithScrapedContent(article.getId(), content);
-
-                    // Step 3: Analyze with LLM
-                    ArticleAnalysisDto analysis = ollamaService.analyzeArticle(
-                            rssArticle.getTitle(),
-                            content
-                    );
-
-                    // Step 4: Process analysis and persist to database
-                    article = articleService.processAnalysis(
-                            article.getId(),
-                            analysis,
-                            ollamaService.getModelName()
-                    );
-
-                    // Step 5: Extract and save calendar events
-                    Map<String, String> tickerMap = article.getMentionedCompanies().stream()
-                            .collect(Collectors.toMap(
-                                    Company::getName,
-                                    Company::getTicker,
-                                    (a, b) -> a
-                            ));
-                    LocalDate articleDate = rssArticle.getPublishedAt() != null
-                            ? rssArticle.getPublishedAt().toLocalDate()
-                            : LocalDate.now();
-                    List<MarketEventDto> events = ollamaService.extractEvents(
-                            rssArticle.getTitle(), content, tickerMap, articleDate);
-                    if (!events.isEmpty()) {
-                        marketEventService.saveEvents(events, article);
-                    }
-
-                    // Step 7: Also save to file for backup/review
-                    fileStorageService.saveArticleWithAnalysis(
-                            rssArticle.getTitle(),
-                            rssArticle.getUrl(),
-                            content,
-                            convertAnalysisToMap(analysis)
-                    );
-
-                    log.info("Successfully processed article: {} (ID: {}, Predictions: {})",
-                            article.getTitle(),
-                            article.getId(),
-                            article.getPredictions().size());
-
-                    successCount++;
-                } else {
-                    log.warn("Skipping article (no content): {}", rssArticle.getTitle());
-                }
+        PipelineRun run = new PipelineRun("parked replay", works.size());
+        List<ArticleWork> resumed = works.stream().map(w -> {
+            ArticleWork work = new ArticleWork(run, w.getSource());
+            work.setArticleId(w.getArticleId());
+            work.setContent(w.getContent());
+            return work;
+        }).toList();
+
+        log.info("Ollama circuit {}, replaying {} parked articles", circuitBreaker.getState(), resumed.size());
+        try {
+            submitClaimed(run, resumed);
+            run.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        log.info("Parked replay done. Success: {}/{}, Skipped: {}, Failed: {}",
+                run.getSucceeded(), run.getTotal(), run.getSkipped(), run.getFailed());
+    }
+
+    // ── Pipeline stages ──────────────────────────────────────────────────────
+
+    private boolean fetchStage(ArticleWork work) throws InterruptedException {
+        RssArticleDto rssArticle = work.getSource();
+        log.info("Processing: {}", rssArticle.getTitle());
 
-            } catch (Exception e) {
-                log.error("Failed to process article: {}", rssArticle.getTitle(), e);
+        if (work.getArticleId() == null) {
+            Article article = articleService.createArticleFromRss(
+                    rssArticle.getExternalId(),
+                    rssArticle.getTitle(),
+                    rssArticle.getUrl(),
+                    rssArticle.getDescription(),
+                    rssArticle.getPublishedAt()
+            );
+
+            if (article == null) {
+                throw new IllegalStateException("Failed to create article record for: " + rssArticle.getTitle());
             }
+            work.setArticleId(article.getId());
+        }
 
-            // Rate limiting
-            if (i < articles.size() - 1) {
-                try {
-                    Thread.sleep(3000); // 3 seconds between articles
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
+        // Paced per host by the scraper's token bucket
+        Document document = scraperService.fetchDocument(rssArticle.getUrl());
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException("Interrupted while fetching " + rssArticle.getUrl());
+        }
+
+        if (document == null) {
+            work.skip(ArticleWork.SkipReason.FETCH_FAILED);
+            return false;
+        }
+        work.setDocument(document);
+        return true;
+    }
+
+    private boolean extractStage(ArticleWork work) {
+        Document document = work.getDocument();
+        work.setDocument(null);
+
+        if (scraperService.isPaywalled(document)) {
+            log.warn("Skipping paywalled article: {}", work.getSource().getUrl());
+            work.skip(ArticleWork.SkipReason.PAYWALLED);
+            return false;
+        }
+
+        String content = scraperService.extractContent(document);
+        if (content == null || content.isEmpty()) {
+            log.warn("Skipping article (no content): {}", work.getTitle());
+            work.skip(ArticleWork.SkipReason.NO_CONTENT);
+            return false;
+        }
+
+        articleService.updateWithScrapedContent(work.getArticleId(), content);
+        work.setContent(content);
+        return true;
+    }
+
+    private boolean analyzeStage(ArticleWork work) {
+        LocalDateTime publishedAt = work.getSource().getPublishedAt();
+        try {
+            PredictiveFilter.Route route = predictiveFilter.route(work.getContent());
+            if (route == PredictiveFilter.Route.SUMMARY) {
+                Optional<ArticleAnalysisDto> summary = ollamaService.summarizeArticle(work.getTitle(), work.getContent());
+                if (summary.isPresent()) {
+                    work.setAnalysis(summary.get());
+                    work.setSummaryOnly(true);
+                    return true;
                 }
             }
+            work.setAnalysis(ollamaService.analyzeArticle(work.getTitle(), work.getContent(),
+                    publishedAt != null ? publishedAt.toLocalDate() : null));
+            if (route == PredictiveFilter.Route.AUDIT) {
+                predictiveFilter.recordAudit(work.getAnalysis());
+            }
+        } catch (OllamaUnavailableException e) {
+            // Other backend failures are left to fail the article, which hands it to recovery
+            if (parkedCount.get() >= maxParked) {
+                // Fails the article; the recovery worker retries it with back-off
+                throw e;
+            }
+            log.info("Ollama unavailable ({}), parking article: {}", e.getMessage(), work.getTitle());
+            parked.add(work);
+            parkedCount.incrementAndGet();
+            work.skip(ArticleWork.SkipReason.PARKED);
+            // The circuit may have closed between the failure and the add
+            replayParkedIfClosed();
+            return false;
         }
+        return true;
+    }
+
+    private boolean resolveStage(ArticleWork work) {
+        work.setResolvedCompanies(articleService.resolveCompanies(work.getAnalysis()));
+        return true;
+    }
 
-        fileStorageService.saveAllArticlesSummary(articles.size(), successCount);
+    private boolean persistStage(ArticleWork work) {
+        work.setArticle(metrics.getProcessAnalysisTimer().record(() -> articleService.processAnalysis(
+                work.getArticleId(),
+                work.getAnalysis(),
+                work.isSummaryOnly() ? ollamaService.getSummaryModelName() : ollamaService.getModelName(),
+                work.getResolvedCompanies()
+        )));
+        return true;
+    }
+
+    private boolean eventsStage(ArticleWork work) {
+        List<MarketEventDto> combinedEvents = work.getAnalysis().getEvents();
+        if (combinedEvents != null) {
+            // Combined analysis already extracted the events; only link them to the resolved companies
+            marketEventService.linkCompanies(combinedEvents, work.getResolvedCompanies());
+            if (!combinedEvents.isEmpty()) {
+                marketEventService.saveEvents(combinedEvents, work.getArticle());
+            }
+            return true;
+        }
+
+        Map<String, String> tickerMap = new LinkedHashMap<>();
+        work.getResolvedCompanies().forEach((name, company) -> {
+            if (company != null) {
+                tickerMap.putIfAbsent(company.getName(), company.getTicker());
+            }
+        });
+
+        LocalDateTime publishedAt = work.getSource().getPublishedAt();
+        LocalDate articleDate = publishedAt != null ? publishedAt.toLocalDate() : LocalDate.now();
+
+        List<MarketEventDto> events = ollamaService.extractEvents(
+                work.getTitle(), work.getContent(), tickerMap, articleDate);
+        if (!events.isEmpty()) {
+            marketEventService.saveEvents(events, work.getArticle());
+        }
+        return true;
+    }
 
-        log.info("RSS feed processing completed. Success: {}/{}, Skipped: {}",
-                successCount, articles.size(), skippedCount);
+    private boolean archiveStage(ArticleWork work) {
+        metrics.getFileBackupTimer().record(() -> fileStorageService.saveArticleWithAnalysis(
+                work.getTitle(),
+                work.getSource().getUrl(),
+                work.getContent(),
+                convertAnalysisToMap(work.getAnalysis())
+        ));
+
+        Article article = work.getArticle();
+        log.info("Successfully processed article: {} (ID: {}, Predictions: {})",
+                article.getTitle(),
+                article.getId(),
+                article.getPredictions().size());
+        return true;
     }
 
     /**
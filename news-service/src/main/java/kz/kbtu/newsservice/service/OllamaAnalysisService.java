@@ -1,79 +1,386 @@
 package kz.kbtu.newsservice.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
 import kz.kbtu.common.dto.ArticleAnalysisDto;
 import kz.kbtu.common.dto.MarketEventDto;
-import kz.kbtu.common.entity.EconomySector;
-import kz.kbtu.newsservice.repository.EconomySectorRepository;
+import kz.kbtu.common.llm.LlmPriority;
+import kz.kbtu.common.llm.LlmResponseCache;
+import kz.kbtu.common.llm.OllamaClient;
+import kz.kbtu.newsservice.fixtures.FixtureCorpus;
+import kz.kbtu.newsservice.llm.AnalysisMerger;
+import kz.kbtu.newsservice.llm.Interrupts;
+import kz.kbtu.newsservice.llm.JsonSalvage;
+import kz.kbtu.newsservice.llm.JsonSchemaBuilder;
+import kz.kbtu.newsservice.llm.LlmOutputException;
+import kz.kbtu.newsservice.llm.OllamaBackendException;
+import kz.kbtu.newsservice.llm.OllamaBackendPool;
+import kz.kbtu.newsservice.llm.OllamaCircuitBreaker;
+import kz.kbtu.newsservice.llm.OllamaHealthMonitor;
+import kz.kbtu.newsservice.llm.OllamaUnavailableException;
+import kz.kbtu.newsservice.llm.RequestPacker;
+import kz.kbtu.newsservice.llm.StreamingJsonParser;
+import kz.kbtu.newsservice.llm.TokenBudget;
+import kz.kbtu.newsservice.metrics.NewsMetrics;
+import kz.kbtu.newsservice.prompt.PromptTemplate;
+import kz.kbtu.newsservice.prompt.ReferenceDataPrompts;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 @Service
 @Slf4j
 public class OllamaAnalysisService {
 
-    private final WebClient webClient;
-    private final ObjectMapper objectMapper;
-    private final EconomySectorRepository sectorRepository;
+    private static final int MAX_OUTPUT_TOKENS = 6000;
+    private static final String CALLER = "analysis";
+
+    // Appended to the model name stored with summary-only analyses, see summarizeArticle
+    public static final String SUMMARY_MODEL_SUFFIX = "/summary";
+
+    // Summary of the placeholder analysis returned when the output could not be used, see analyzeArticle
+    public static final String FAILED_SUMMARY = "Analysis failed";
 
-    @Value("${ollama.url:http://localhost:11434}")
-    private String ollamaUrl;
+    // Output schemas derived from the DTOs the responses are bound to
+    private static final Map<String, Object> ANALYSIS_SCHEMA = analysisSchema().exclude("events").build();
+    private static final Map<String, Object> COMBINED_SCHEMA = analysisSchema()
+            .exclude("companyTicker")
+            .nullable("companyName")
+            .build();
+    private static final Map<String, Object> SUMMARY_SCHEMA = analysisSchema().exclude("predictions", "events").build();
+    private static final Map<String, Object> EVENTS_SCHEMA = eventSchema(JsonSchemaBuilder.arrayOf(MarketEventDto.class))
+            .exclude("companyName")
+            .nullable("companyTicker")
+            .build();
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Object> generateOptions;
+    private final ReferenceDataPrompts referencePrompts;
+    private final OllamaBackendPool backendPool;
+    private final OllamaClient ollamaClient;
+    private final OllamaCircuitBreaker circuitBreaker;
+    private final OllamaHealthMonitor healthMonitor;
+    private final NewsMetrics metrics;
+    private final FixtureCorpus fixtures;
+    private final LlmResponseCache responseCache;
+    private final TokenBudget tokenBudget;
 
     @Value("${ollama.model:qwen2.5:14b}")
     private String model;
 
-    public OllamaAnalysisService(EconomySectorRepository sectorRepository) {
-        this.sectorRepository = sectorRepository;
-        this.webClient = WebClient.builder()
-                .baseUrl("http://localhost:11434")
-                .build();
-        this.objectMapper = new ObjectMapper();
+    // One generation returns analysis and calendar events; see analyzeArticle
+    @Value("${ollama.combined-analysis:true}")
+    private boolean combinedAnalysis;
+
+    // Read the NDJSON token stream and parse it as it arrives, aborting malformed or looping generations early
+    @Value("${ollama.streaming:true}")
+    private boolean streaming;
+
+    // Constrain output with a JSON schema generated from the DTOs (Ollama "format")
+    @Value("${ollama.structured-output:true}")
+    private boolean structuredOutput;
+
+    // Output cut off at num_predict is continued up to this many times, each with its own token budget
+    private final int continuationRounds;
+    private final int continuationTokens;
+
+    // Short articles are packed into shared generations, see analyzePack
+    @Value("${ollama.packing.enabled:true}")
+    private boolean packing;
+    private final int packingMaxArticleTokens;
+    private final RequestPacker<PackedArticle, ArticleAnalysisDto> packer;
+    // Threads in tryAnalyzeArticle: while this thread is the only one, a pack has nobody to wait for
+    private final AtomicInteger activeAnalyses = new AtomicInteger();
+
+    public OllamaAnalysisService(ReferenceDataPrompts referencePrompts,
+                                 OllamaBackendPool backendPool,
+                                 OllamaClient ollamaClient,
+                                 OllamaCircuitBreaker circuitBreaker,
+                                 OllamaHealthMonitor healthMonitor,
+                                 NewsMetrics metrics,
+                                 FixtureCorpus fixtures,
+                                 LlmResponseCache responseCache,
+                                 TokenBudget tokenBudget,
+                                 @Value("${ollama.continuation.max-rounds:2}") int continuationRounds,
+                                 @Value("${ollama.continuation.max-tokens:2000}") int continuationTokens,
+                                 @Value("${ollama.packing.max-article-tokens:600}") int packingMaxArticleTokens,
+                                 @Value("${ollama.packing.max-pack-tokens:3000}") int packingMaxPackTokens,
+                                 @Value("${ollama.packing.max-articles:4}") int packingMaxArticles,
+                                 @Value("${ollama.packing.max-wait-ms:1000}") long packingMaxWaitMs) {
+        this.referencePrompts = referencePrompts;
+        this.backendPool = backendPool;
+        this.ollamaClient = ollamaClient;
+        this.circuitBreaker = circuitBreaker;
+        this.healthMonitor = healthMonitor;
+        this.metrics = metrics;
+        this.fixtures = fixtures;
+        this.responseCache = responseCache;
+        this.tokenBudget = tokenBudget;
+        this.continuationRounds = Math.max(0, continuationRounds);
+        this.continuationTokens = continuationTokens;
+        this.packingMaxArticleTokens = packingMaxArticleTokens;
+        this.packer = new RequestPacker<>(packingMaxPackTokens, packingMaxArticles,
+                Duration.ofMillis(packingMaxWaitMs), activeAnalyses::get, this::analyzePack);
+        this.objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .configure(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true);
+        // num_ctx is set explicitly so an oversized prompt cannot be truncated silently by a small default
+        this.generateOptions = Map.of(
+                "temperature", 0.1,
+                "num_predict", MAX_OUTPUT_TOKENS,
+                "top_p", 0.9,
+                "num_ctx", tokenBudget.getContextTokens()
+        );
+        tokenBudget.checkContext("Analysis", ANALYSIS_INSTRUCTIONS + COMBINED_EVENTS_INSTRUCTIONS,
+                MAX_OUTPUT_TOKENS + this.continuationRounds * continuationTokens);
     }
 
     public ArticleAnalysisDto analyzeArticle(String title, String content) {
+        return analyzeArticle(title, content, null);
+    }
+
+    /**
+     * Analyzes the article. In combined mode the same generation also extracts calendar events,
+     * returned in {@link ArticleAnalysisDto#getEvents()} with company names instead of tickers,
+     * so the article content is processed by the model only once.
+     *
+     * The placeholder ("Analysis failed") is only returned for output that cannot be used. When Ollama itself
+     * fails, nothing is returned, so the article is retried instead of being stored as analyzed.
+     *
+     * @param articleDate publication date, used to resolve relative event dates (today if null)
+     * @throws OllamaUnavailableException while the Ollama circuit is open
+     * @throws OllamaBackendException     if the generation failed in transport or on the backend
+     */
+    public ArticleAnalysisDto analyzeArticle(String title, String content, LocalDate articleDate) {
+        return tryAnalyzeArticle(title, content, articleDate)
+                .orElseGet(() -> ArticleAnalysisDto.builder()
+                        .summary(FAILED_SUMMARY)
+                        .sentiment("NEUTRAL")
+                        .build());
+    }
+
+    /**
+     * Same as {@link #analyzeArticle}, but returns empty instead of a placeholder analysis on failure,
+     * for callers that must not overwrite an existing analysis with a failed one.
+     *
+     * @throws OllamaBackendException if the generation failed in transport or on the backend
+     */
+    public Optional<ArticleAnalysisDto> tryAnalyzeArticle(String title, String content) {
+        return tryAnalyzeArticle(title, content, null);
+    }
+
+    /**
+     * Articles within {@link TokenBudget} are analyzed in one call. Longer ones are split into chunks
+     * that are analyzed in parallel and merged by {@link AnalysisMerger}; chunks that fail are left out.
+     * Short articles analyzed at the same time share one call, see {@link #analyzePack}.
+     *
+     * @return empty if the output could not be used
+     * @throws OllamaUnavailableException while the Ollama circuit is open
+     * @throws OllamaBackendException     if the generation failed in transport or on the backend
+     */
+    public Optional<ArticleAnalysisDto> tryAnalyzeArticle(String title, String content, LocalDate articleDate) {
         log.info("Analyzing article with LLM: {}", title);
 
-        String prompt = buildAnalysisPrompt(title, content);
+        Timer.Sample sample = Timer.start();
+        activeAnalyses.incrementAndGet();
+        try {
+            int tokens = tokenBudget.estimateTokens(content);
+            if (packing && tokens <= packingMaxArticleTokens) {
+                return analyzePacked(new PackedArticle(title, content, articleDate), tokens);
+            }
+            if (tokenBudget.fits(content)) {
+                return analyzeOnce(title, content, articleDate);
+            }
+            return analyzeInChunks(title, content, articleDate);
+        } finally {
+            activeAnalyses.decrementAndGet();
+            // A pack waiting for this thread to join can close now
+            packer.recheck();
+            sample.stop(metrics.getAnalyzeTimer());
+        }
+    }
 
+    private Optional<ArticleAnalysisDto> analyzeOnce(String title, String content, LocalDate articleDate) {
+        String prompt = buildAnalysisPrompt(title, content, articleDate);
         try {
-            String response = generate(prompt);
-            return parseAnalysisResponse(response);
+            Map<String, Object> schema = combinedAnalysis ? COMBINED_SCHEMA : ANALYSIS_SCHEMA;
+            return Optional.of(generateCached(prompt, schema, Set.of("predictions", "events"), (array, element) ->
+                    log.debug("Streamed {} element for '{}': {}", array, title, element),
+                    this::parseAnalysisResponse));
 
+        } catch (OllamaBackendException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OllamaBackendException("Interrupted while analyzing '" + title + "'", e);
         } catch (Exception e) {
             log.error("Failed to analyze article", e);
-            return ArticleAnalysisDto.builder()
-                    .summary("Analysis failed")
-                    .sentiment("NEUTRAL")
-                    .build();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Cheap analysis for articles the pre-filter scored as non-predictive: summary, sentiment and mentioned
+     * entities from short instructions, with no predictions. Events are not extracted, so the returned
+     * analysis has an empty events list. Articles over the token budget are summarized from their first chunk.
+     *
+     * @return empty if the output could not be used; the caller may fall back to {@link #analyzeArticle}
+     * @throws OllamaUnavailableException while the Ollama circuit is open
+     * @throws OllamaBackendException     if the generation failed in transport or on the backend
+     */
+    public Optional<ArticleAnalysisDto> summarizeArticle(String title, String content) {
+        log.info("Summarizing article with LLM (pre-filtered as non-predictive): {}", title);
+
+        Timer.Sample sample = Timer.start();
+        String prompt = SUMMARY_PROMPT.render(Map.of(
+                "sectors", referencePrompts.sectorCatalog(),
+                "title", title,
+                "content", tokenBudget.fits(content) ? content : tokenBudget.split(content).getFirst()));
+        try {
+            ArticleAnalysisDto analysis = generateCached(prompt, SUMMARY_SCHEMA, Set.of(), (array, element) -> { },
+                    this::parseAnalysisResponse);
+            analysis.setPredictions(new ArrayList<>());
+            analysis.setEvents(new ArrayList<>());
+            return Optional.of(analysis);
+        } catch (OllamaBackendException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OllamaBackendException("Interrupted while summarizing '" + title + "'", e);
+        } catch (Exception e) {
+            log.warn("Failed to summarize article '{}': {}", title, e.getMessage());
+            return Optional.empty();
+        } finally {
+            sample.stop(metrics.getSummarizeTimer());
+        }
+    }
+
+    private Optional<ArticleAnalysisDto> analyzePacked(PackedArticle article, int tokens) {
+        ArticleAnalysisDto analysis;
+        try {
+            analysis = packer.submit(article, tokens);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OllamaBackendException("Interrupted while analyzing '" + article.title() + "'", e);
+        } catch (OllamaBackendException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.warn("Packed analysis failed for '{}', analyzing it alone: {}", article.title(), e.getMessage());
+            analysis = null;
         }
+        return analysis != null ? Optional.of(analysis) : analyzeOnce(article.title(), article.content(), article.articleDate());
     }
 
-    private String getAvailableSectorsForPrompt() {
-        List<EconomySector> sectors = sectorRepository.findAll();
+    /**
+     * Analyzes several short articles in one generation, so the instructions are processed once for all
+     * of them. Each article gets a section headed by its ID in the pack ("A1", "A2", ...), and the output
+     * is one JSON object with the analysis of each article under its ID.
+     *
+     * @return the analysis of each article, or null for an article that has to be analyzed on its own:
+     *         a pack of one, or a section that is missing or does not parse
+     * @throws OllamaBackendException if the generation failed in transport or on the backend; every
+     *                                article of the pack is retried later then
+     */
+    private List<ArticleAnalysisDto> analyzePack(List<PackedArticle> articles) throws InterruptedException {
+        List<ArticleAnalysisDto> results = new ArrayList<>(Collections.nCopies(articles.size(), null));
+        if (articles.size() == 1) {
+            return results;
+        }
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 1; i <= articles.size(); i++) {
+            ids.add("A" + i);
+        }
+        log.info("Analyzing {} short articles in one generation", articles.size());
+
+        Map<String, ArticleAnalysisDto> sections;
+        try {
+            sections = generateCached(buildPackedPrompt(ids, articles), packedSchema(ids), Set.of(),
+                    (array, element) -> { }, response -> parsePackedResponse(response, ids));
+        } catch (OllamaBackendException | InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("Packed analysis of {} articles failed, analyzing them one by one: {}", articles.size(), e.getMessage());
+            metrics.countPackedArticles("fallback", articles.size());
+            return results;
+        }
 
-        return sectors.stream()
-                .map(s -> s.getCode() + " (" + s.getName()
-                        + (s.getDescription() != null ? ": " + s.getDescription() : "") + ")")
-                .collect(Collectors.joining(", "));
+        for (int i = 0; i < ids.size(); i++) {
+            results.set(i, sections.get(ids.get(i)));
+        }
+        int missing = articles.size() - sections.size();
+        if (missing > 0) {
+            log.warn("{} of {} sections of the packed analysis are missing or broken, analyzing those articles alone",
+                    missing, articles.size());
+            metrics.countPackedArticles("fallback", missing);
+        }
+        metrics.countPackedArticles("packed", sections.size());
+        return results;
     }
 
-    private String buildAnalysisPrompt(String title, String content) {
-        String availableSectors = getAvailableSectorsForPrompt();
+    private Optional<ArticleAnalysisDto> analyzeInChunks(String title, String content, LocalDate articleDate) {
+        List<String> chunks = tokenBudget.split(content);
+        log.info("Article '{}' is ~{} tokens, analyzing {} chunks in parallel",
+                title, tokenBudget.estimateTokens(content), chunks.size());
 
-        return String.format("""
-    You are a market analyst. Analyze this article and produce predictions about future stock/market movements.
+        List<ArticleAnalysisDto> parts = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Failures are handled inside the block: close() waits for every chunk still generating
+            try {
+                List<Future<Optional<ArticleAnalysisDto>>> futures = new ArrayList<>();
+                for (int i = 0; i < chunks.size(); i++) {
+                    String chunkTitle = title + " (part " + (i + 1) + " of " + chunks.size() + ")";
+                    String chunk = chunks.get(i);
+                    futures.add(executor.submit(() -> analyzeOnce(chunkTitle, chunk, articleDate)));
+                }
+                for (Future<Optional<ArticleAnalysisDto>> future : futures) {
+                    future.get().ifPresent(parts::add);
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new OllamaBackendException("Interrupted while analyzing '" + title + "'", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof OllamaBackendException backendFailure) {
+                    // The whole article is retried, so the other chunks are not needed
+                    executor.shutdownNow();
+                    throw backendFailure;
+                }
+                log.error("Chunk analysis failed for '{}'", title, e.getCause());
+            }
+        }
 
-    TITLE: %s
-    CONTENT: %s
+        if (parts.isEmpty()) {
+            return Optional.empty();
+        }
+        if (parts.size() < chunks.size()) {
+            log.warn("Merging {} of {} chunk analyses for '{}'", parts.size(), chunks.size(), title);
+        }
+        return Optional.of(AnalysisMerger.merge(parts));
+    }
 
-    AVAILABLE SECTOR CODES: %s
+    // Static instructions first and per-article data last, so every prompt shares a long identical
+    // prefix that Ollama can keep in its prompt cache between articles.
+    private static final String ANALYSIS_INSTRUCTIONS = """
+    You are a market analyst. Analyze the article given at the end of this prompt and produce predictions about future stock/market movements.
 
     === OUTPUT RULES ===
 
@@ -123,9 +430,9 @@ public class OllamaAnalysisService {
 
     === CONFIDENCE GUIDELINES ===
     
-    - 75-85%%: Direct, clear causal link between news and expected market movement
-    - 60-74%%: Reasonable inference but outcome could go either way
-    - Below 60%%: Speculative, use sparingly
+    - 75-85%: Direct, clear causal link between news and expected market movement
+    - 60-74%: Reasonable inference but outcome could go either way
+    - Below 60%: Speculative, use sparingly
 
     === JSON STRUCTURE ===
 
@@ -154,7 +461,7 @@ public class OllamaAnalysisService {
     
     - companies: Full official company names mentioned in the article. Do NOT return stock tickers.
     - countries: Countries mentioned by name
-    - sectors: Use CODES from the available sector list above, not full names
+    - sectors: Use CODES from the available sector list below, not full names
     - predictions.targets:
       - COMPANY scope → single full company name (e.g. "Apple Inc", NOT "AAPL")
       - MULTI_TICKER scope → multiple full company names
@@ -162,102 +469,567 @@ public class OllamaAnalysisService {
       - COUNTRY scope → country names
     - predictions.countries: REQUIRED for SECTOR scope. Always list the countries where this sector is affected. Never leave empty for SECTOR scope.
     - predictions.sectors: Only for COUNTRY scope if specific sectors affected
-    """, title, content, availableSectors);
+    """;
+
+    private static final String COMBINED_EVENTS_INSTRUCTIONS = """
+
+    === CALENDAR EVENTS ===
+
+    Also add an "events" array to the same JSON object with scheduled financial calendar events
+    that have a specific future date in the article. Use [] if nothing qualifies.
+
+    - Event types: EARNINGS (earnings reports), DIVIDEND (payment or ex-dividend dates),
+      CONFERENCE (investor/analyst days, shareholder meetings), ECONOMIC (central bank meetings, CPI, GDP, NFP, PMI, FOMC, etc.)
+    - Only include events dated AFTER TODAY (given below)
+    - Resolve relative dates ("next Tuesday", "this Friday") using the ARTICLE DATE (given below)
+    - Skip events with no clear specific date
+    - relevance: HIGH = major market-moving, MEDIUM = sector-relevant, LOW = minor
+    - companyName: full company name exactly as in "companies", or null for macro events
+    - sector: the sector NAME from the available sector list (e.g. "Technology", not "TECH")
+
+    "events": [
+      {
+        "title": "Short descriptive name",
+        "date": "YYYY-MM-DD",
+        "time": "H:MM AM/PM ET or TBD",
+        "type": "EARNINGS | ECONOMIC | DIVIDEND | CONFERENCE",
+        "relevance": "HIGH | MEDIUM | LOW",
+        "companyName": "Full Company Name or null",
+        "sector": "Sector name"
+      }
+    ]
+    """;
+
+    private static final PromptTemplate ANALYSIS_PROMPT = PromptTemplate.compile(ANALYSIS_INSTRUCTIONS + """
+
+    AVAILABLE SECTOR CODES: {{sectors}}
+
+    === ARTICLE ===
+
+    TITLE: {{title}}
+    CONTENT: {{content}}
+    """);
+
+    private static final PromptTemplate COMBINED_PROMPT = PromptTemplate.compile(ANALYSIS_INSTRUCTIONS
+            + COMBINED_EVENTS_INSTRUCTIONS + """
+
+    AVAILABLE SECTOR CODES: {{sectors}}
+
+    TODAY: {{today}}
+    ARTICLE DATE: {{articleDate}}
+
+    === ARTICLE ===
+
+    TITLE: {{title}}
+    CONTENT: {{content}}
+    """);
+
+    private static final PromptTemplate SUMMARY_PROMPT = PromptTemplate.compile("""
+    Summarize the article given at the end of this prompt.
+
+    Return ONLY valid JSON. No text before or after.
+
+    {
+      "summary": "2-4 sentence factual summary",
+      "companies": ["Apple Inc", "Microsoft Corporation"],
+      "countries": ["Country1"],
+      "sectors": ["SECTOR_CODE1"],
+      "sentiment": "POSITIVE | NEGATIVE | NEUTRAL | MIXED"
     }
 
-    private String generate(String prompt) {
-        Map<String, Object> request = Map.of(
-                "model", model,
-                "prompt", prompt,
-                "stream", false,
-                "options", Map.of(
-                        "temperature", 0.1,
-                        "num_predict", 6000,
-                        "top_p", 0.9
-                )
-        );
+    - companies: Full official company names mentioned in the article. Do NOT return stock tickers.
+    - countries: Countries mentioned by name
+    - sectors: Use CODES from the available sector list below, not full names
 
-        Map<String, Object> response = webClient.post()
-                .uri("/api/generate")
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .block();
+    AVAILABLE SECTOR CODES: {{sectors}}
 
-        if (response != null && response.containsKey("response")) {
-            return (String) response.get("response");
+    === ARTICLE ===
+
+    TITLE: {{title}}
+    CONTENT: {{content}}
+    """);
+
+    private static final String PACKED_INSTRUCTIONS = """
+
+    === MULTIPLE ARTICLES ===
+
+    This prompt contains several unrelated articles instead of one, each in a section headed
+    "=== ARTICLE <ID> ===". Analyze every article on its own, applying all rules above to it alone:
+    never use facts from one article in the analysis of another.
+
+    Return ONE JSON object with one field per article: the field name is the article ID, the value is
+    the JSON object described above for that article. Include every article ID.
+    """;
+
+    private static final PromptTemplate PACKED_PROMPT = PromptTemplate.compile(ANALYSIS_INSTRUCTIONS + PACKED_INSTRUCTIONS + """
+
+    AVAILABLE SECTOR CODES: {{sectors}}
+    {{articles}}""");
+
+    private static final PromptTemplate PACKED_COMBINED_PROMPT = PromptTemplate.compile(ANALYSIS_INSTRUCTIONS
+            + COMBINED_EVENTS_INSTRUCTIONS + PACKED_INSTRUCTIONS + """
+
+    AVAILABLE SECTOR CODES: {{sectors}}
+
+    TODAY: {{today}}
+    {{articles}}""");
+
+    private String buildPackedPrompt(List<String> ids, List<PackedArticle> articles) {
+        String today = fixtures.today().toString();
+        StringBuilder sections = new StringBuilder();
+        for (int i = 0; i < articles.size(); i++) {
+            PackedArticle article = articles.get(i);
+            sections.append("\n=== ARTICLE ").append(ids.get(i)).append(" ===\n\n");
+            if (combinedAnalysis) {
+                sections.append("ARTICLE DATE: ")
+                        .append(article.articleDate() != null ? article.articleDate().toString() : today)
+                        .append('\n');
+            }
+            sections.append("TITLE: ").append(article.title()).append('\n')
+                    .append("CONTENT: ").append(article.content()).append('\n');
         }
 
-        throw new RuntimeException("Invalid response from Ollama");
+        if (!combinedAnalysis) {
+            return PACKED_PROMPT.render(Map.of(
+                    "sectors", referencePrompts.sectorCatalog(),
+                    "articles", sections.toString()));
+        }
+        return PACKED_COMBINED_PROMPT.render(Map.of(
+                "sectors", referencePrompts.sectorCatalog(),
+                "today", today,
+                "articles", sections.toString()));
     }
 
-    private ArticleAnalysisDto parseAnalysisResponse(String jsonResponse) {
+    private Map<String, Object> packedSchema(List<String> ids) {
+        Map<String, Object> section = combinedAnalysis ? COMBINED_SCHEMA : ANALYSIS_SCHEMA;
+        Map<String, Object> properties = new LinkedHashMap<>();
+        ids.forEach(id -> properties.put(id, section));
+        return Map.of(
+                "type", "object",
+                "properties", properties,
+                "required", ids);
+    }
+
+    private String buildAnalysisPrompt(String title, String content, LocalDate articleDate) {
+        if (!combinedAnalysis) {
+            return ANALYSIS_PROMPT.render(Map.of(
+                    "sectors", referencePrompts.sectorCatalog(),
+                    "title", title,
+                    "content", content));
+        }
+
+        String today = fixtures.today().toString();
+        return COMBINED_PROMPT.render(Map.of(
+                "sectors", referencePrompts.sectorCatalog(),
+                "today", today,
+                "articleDate", articleDate != null ? articleDate.toString() : today,
+                "title", title,
+                "content", content));
+    }
+
+    /**
+     * Serves the generation from {@link LlmResponseCache} if an identical request was answered before.
+     * A fresh response is only cached once {@code parser} accepted it and it was not cut off, since the
+     * parsers salvage whatever is complete in truncated output and the next attempt may well finish.
+     * A cached response that no longer parses is dropped and regenerated.
+     */
+    private <T> T generateCached(String prompt, Map<String, Object> format, Set<String> streamedArrays,
+                                 StreamingJsonParser.ElementListener listener,
+                                 Function<String, T> parser) throws InterruptedException {
+        if (!structuredOutput) {
+            format = null;
+        }
+        String cacheKey = responseCache.key(model, prompt, generationSettings(format));
+        Optional<String> cached = responseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            try {
+                return parser.apply(cached.get());
+            } catch (RuntimeException e) {
+                log.warn("Cached LLM response no longer parses, regenerating: {}", e.getMessage());
+                responseCache.invalidate(cacheKey);
+            }
+        }
+
+        Generation generation = generate(prompt, format, streamedArrays, listener,
+                responseCache.canonicalRequest(model, prompt, fixtureSettings(format)));
+        T result = parser.apply(generation.response());
+        if (!generation.truncated()) {
+            responseCache.put(cacheKey, model, generation.response());
+        }
+        return result;
+    }
+
+    /**
+     * Runs one generation. In streaming mode, elements of {@code streamedArrays} are passed to the listener
+     * as soon as the model closes them, and the request is cancelled as soon as the output turns out
+     * to be malformed or repetitive ({@link LlmOutputException}).
+     *
+     * Output cut off by {@code num_predict} is continued, see {@link #generateWithContinuation}; the result
+     * tells whether it was still cut off after that, including when a continuation failed.
+     *
+     * Backend errors count towards {@link OllamaCircuitBreaker} and are thrown as {@link OllamaBackendException}.
+     * While the circuit is open, generations fail right away with {@link OllamaUnavailableException}, and so
+     * does the failure that opens it. A replayed generation involves neither the pool nor the circuit.
+     */
+    private Generation generate(String prompt, Map<String, Object> format, Set<String> streamedArrays,
+                            StreamingJsonParser.ElementListener listener, String fixtureKey) throws InterruptedException {
+        if (fixtures.isReplaying()) {
+            // A missing fixture fails this article only; counted as a backend failure it would open a circuit
+            // that no health check ever closes again in replay
+            Map<String, Object> response = fixtures.replay("llm", fixtureKey, Map.class);
+            if (response == null || !response.containsKey("response")) {
+                throw new IllegalStateException("Recorded generation has no response: " + fixtureKey);
+            }
+            return new Generation((String) response.get("response"), isTruncated(response));
+        }
+        circuitBreaker.checkPermitted();
+        OllamaBackendPool.Lease lease;
+        try {
+            lease = backendPool.acquire(LlmPriority.BATCH);
+        } catch (OllamaUnavailableException e) {
+            circuitBreaker.open(e.getMessage());
+            throw e;
+        }
+        Map<String, Object> response;
         try {
-            String cleaned = cleanJsonResponse(jsonResponse);
-            log.debug("Cleaned JSON response: {}", cleaned);
-
-            JsonNode root = objectMapper.readTree(cleaned);
-
-            ArticleAnalysisDto.ArticleAnalysisDtoBuilder builder = ArticleAnalysisDto.builder()
-                    .summary(root.path("summary").asText())
-                    .sentiment(root.path("sentiment").asText("NEUTRAL"))
-                    .companies(parseJsonArrayToList(root.path("companies")))
-                    .countries(parseJsonArrayToList(root.path("countries")))
-                    .sectors(parseJsonArrayToList(root.path("sectors")));
-
-            // Parse predictions
-            List<ArticleAnalysisDto.PredictionDto> predictions = new ArrayList<>();
-            JsonNode predictionsNode = root.path("predictions");
-            if (predictionsNode.isArray()) {
-                for (JsonNode predNode : predictionsNode) {
-                    ArticleAnalysisDto.PredictionDto pred = ArticleAnalysisDto.PredictionDto.builder()
-                            .scope(predNode.path("scope").asText("COMPANY"))
-                            .targets(parseJsonArrayToList(predNode.path("targets")))
-                            .countries(parseJsonArrayToList(predNode.path("countries")))
-                            .sectors(parseJsonArrayToList(predNode.path("sectors")))
-                            .direction(predNode.path("direction").asText("NEUTRAL"))
-                            .timeHorizon(predNode.path("timeHorizon").asText(
-                                    predNode.path("time_horizon").asText("SHORT_TERM")))
-                            .confidence(predNode.path("confidence").asInt(50))
-                            .rationale(predNode.path("rationale").asText())
-                            .evidence(parseJsonArrayToList(predNode.path("evidence")))
-                            .build();
-                    predictions.add(pred);
+            response = fixtures.fetch("llm", fixtureKey, Map.class,
+                    () -> generateWithContinuation(lease.url(), prompt, format, streamedArrays, listener));
+        } catch (LlmOutputException e) {
+            // Bad output says nothing about backend load
+            lease.release();
+            metrics.countLlmAbort(e.getReason().name().toLowerCase());
+            log.warn("Aborted LLM generation: {}", e.getMessage());
+            throw e;
+        } catch (RuntimeException e) {
+            if (Interrupts.isInterrupt(e)) {
+                // Shutting down says nothing about the backend either
+                lease.release();
+                Thread.currentThread().interrupt();
+                throw (InterruptedException) new InterruptedException("Generation interrupted").initCause(e);
+            }
+            lease.failure(e.getMessage());
+            throw backendFailure(e.getMessage(), e);
+        }
+
+        if (response != null && response.containsKey("response")) {
+            lease.success(evalCount(response));
+            circuitBreaker.recordSuccess();
+            return new Generation((String) response.get("response"), isTruncated(response));
+        }
+
+        lease.failure("Invalid response");
+        throw backendFailure("Invalid response from Ollama", null);
+    }
+
+    /**
+     * Everything besides model and prompt that decides the output: the options and schema sent to Ollama,
+     * and how far cut-off output is continued.
+     */
+    private Map<String, Object> generationSettings(Map<String, Object> format) {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("options", generateOptions);
+        settings.put("continuation", Map.of("maxRounds", continuationRounds, "maxTokens", continuationTokens));
+        if (format != null) {
+            settings.put("format", format);
+        }
+        return settings;
+    }
+
+    /**
+     * {@link #generationSettings} plus whether the generation is streamed, which decides what a recorded
+     * generation looks like.
+     */
+    private Map<String, Object> fixtureSettings(Map<String, Object> format) {
+        Map<String, Object> settings = generationSettings(format);
+        settings.put("streaming", streaming);
+        return settings;
+    }
+
+    private OllamaBackendException backendFailure(String message, RuntimeException cause) {
+        circuitBreaker.recordFailure(message);
+        if (circuitBreaker.isOpen()) {
+            return new OllamaUnavailableException(message, cause);
+        }
+        return new OllamaBackendException(message, cause);
+    }
+
+    /**
+     * @param format JSON schema the output must follow (Ollama structured outputs), or null for free text
+     */
+    private Map<String, Object> generateRequest(String prompt, Map<String, Object> format, boolean stream) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("model", model);
+        request.put("prompt", prompt);
+        request.put("stream", stream);
+        request.put("options", generateOptions);
+        if (format != null) {
+            request.put("format", format);
+        }
+        return request;
+    }
+
+    /**
+     * Runs the generation and, while Ollama reports {@code done_reason: "length"} and the JSON is still
+     * open, continues it with up to {@code ollama.continuation.max-rounds} requests of
+     * {@code ollama.continuation.max-tokens} each. Returns the shape of a non-streaming response with the
+     * whole text as {@code response}; {@code done_reason} stays "length" if the output is still cut off,
+     * which leaves it to the response parsers to salvage the complete parts.
+     *
+     * Ollama only applies the {@code context} of a generation as a new templated turn, so a continuation
+     * is sent to /api/chat instead, with the partial output as a trailing assistant message that the model
+     * extends in place. It has no {@code format}: the schema grammar would start over from the root value.
+     */
+    private Map<String, Object> generateWithContinuation(String backendUrl, String prompt, Map<String, Object> format,
+                                                         Set<String> streamedArrays,
+                                                         StreamingJsonParser.ElementListener listener) {
+        StreamingJsonParser parser = streaming ? new StreamingJsonParser(objectMapper, streamedArrays, listener) : null;
+        StringBuilder text = new StringBuilder();
+
+        Map<String, Object> last = streaming
+                ? streamInto(ollamaClient.stream(CALLER, backendUrl,
+                        generateRequest(prompt, format, true)), parser, chunk -> (String) chunk.get("response"))
+                : ollamaClient.generate(CALLER, backendUrl, generateRequest(prompt, format, false)).block();
+        if (last == null) {
+            return null;
+        }
+        if (!streaming) {
+            text.append((String) last.get("response"));
+        }
+        int evalCount = evalCount(last);
+
+        int rounds = 0;
+        while (isTruncated(last) && (parser == null || !parser.isComplete()) && rounds < continuationRounds) {
+            rounds++;
+            String partial = parser != null ? parser.getText() : text.toString();
+            log.info("Generation cut off at num_predict after {} characters, continuing ({} of {})",
+                    partial.length(), rounds, continuationRounds);
+            Map<String, Object> request = continuationRequest(prompt, partial, streaming);
+            Map<String, Object> continued;
+            try {
+                continued = streaming
+                        ? streamInto(ollamaClient.streamChat(CALLER, backendUrl, request),
+                                parser, OllamaAnalysisService::chatContent)
+                        : ollamaClient.chat(CALLER, backendUrl, request).block();
+            } catch (LlmOutputException e) {
+                // A continuation that turns malformed or repetitive spoils the whole output
+                throw e;
+            } catch (RuntimeException e) {
+                if (Interrupts.isInterrupt(e)) {
+                    throw e;
                 }
+                log.warn("Continuation failed, keeping the partial output: {}", e.getMessage());
+                break;
+            }
+            if (continued == null) {
+                break;
             }
-            builder.predictions(predictions);
+            if (!streaming) {
+                text.append(chatContent(continued));
+            }
+            evalCount += evalCount(continued);
+            last = continued;
+        }
 
-            return builder.build();
+        boolean truncated = isTruncated(last) && (parser == null || !parser.isComplete());
+        if (rounds > 0 && !truncated) {
+            metrics.countLlmTruncation("continued");
+        }
 
-        } catch (Exception e) {
-            log.error("Failed to parse LLM response: {}", jsonResponse, e);
-            return ArticleAnalysisDto.builder()
-                    .summary("Failed to parse response")
-                    .sentiment("NEUTRAL")
-                    .build();
+        Map<String, Object> response = new HashMap<>(last);
+        response.remove("message");
+        response.put("response", parser != null ? parser.getText() : text.toString());
+        response.put("eval_count", evalCount);
+        response.put("done_reason", truncated ? "length" : "stop");
+        return response;
+    }
+
+    /**
+     * Feeds the streamed text to the parser and returns the final chunk.
+     * Exceptions thrown by the parser cancel the subscription, which closes the connection and stops Ollama,
+     * and so does the end of the root JSON value: whatever the model would write after it is ignored anyway.
+     * A generation cancelled that way reports {@code done_reason: "stop"} and one token per chunk received.
+     */
+    private Map<String, Object> streamInto(Flux<Map<String, Object>> chunks, StreamingJsonParser parser,
+                                           Function<Map<String, Object>, String> text) {
+        AtomicInteger received = new AtomicInteger();
+        Map<String, Object> last = chunks
+                .doOnNext(chunk -> {
+                    received.incrementAndGet();
+                    parser.feed(text.apply(chunk));
+                })
+                .takeUntil(chunk -> Boolean.TRUE.equals(chunk.get("done")) || parser.isComplete())
+                .blockLast();
+        if (last == null || Boolean.TRUE.equals(last.get("done"))) {
+            return last;
+        }
+        Map<String, Object> cancelled = new HashMap<>(last);
+        cancelled.put("done", true);
+        cancelled.put("done_reason", "stop");
+        cancelled.put("eval_count", received.get());
+        return cancelled;
+    }
+
+    private Map<String, Object> continuationRequest(String prompt, String partial, boolean stream) {
+        Map<String, Object> options = new HashMap<>(generateOptions);
+        options.put("num_predict", continuationTokens);
+        return Map.of(
+                "model", model,
+                "messages", List.of(
+                        Map.of("role", "user", "content", prompt),
+                        Map.of("role", "assistant", "content", partial)),
+                "stream", stream,
+                "options", options
+        );
+    }
+
+    private static String chatContent(Map<String, Object> chunk) {
+        return chunk.get("message") instanceof Map<?, ?> message && message.get("content") instanceof String content
+                ? content
+                : null;
+    }
+
+    private static boolean isTruncated(Map<String, Object> response) {
+        return "length".equals(response.get("done_reason"));
+    }
+
+    private static int evalCount(Map<String, Object> response) {
+        return response.get("eval_count") instanceof Number n ? n.intValue() : 0;
+    }
+
+    private static JsonSchemaBuilder analysisSchema() {
+        return eventSchema(JsonSchemaBuilder.of(ArticleAnalysisDto.class))
+                .enumValues("sentiment", "POSITIVE", "NEGATIVE", "NEUTRAL", "MIXED")
+                .enumValues("scope", "COMPANY", "MULTI_TICKER", "SECTOR", "COUNTRY")
+                .enumValues("direction", "BULLISH", "BEARISH", "NEUTRAL", "MIXED", "VOLATILE")
+                .enumValues("timeHorizon", "SHORT_TERM", "MID_TERM", "LONG_TERM");
+    }
+
+    private static JsonSchemaBuilder eventSchema(JsonSchemaBuilder builder) {
+        return builder
+                .enumValues("type", "EARNINGS", "ECONOMIC", "DIVIDEND", "CONFERENCE")
+                .enumValues("relevance", "HIGH", "MEDIUM", "LOW");
+    }
+
+    /**
+     * Binds the response straight to the DTO with a streaming parser; no intermediate tree.
+     * Output that is cut off or broken is salvaged: complete fields and predictions are kept.
+     */
+    private ArticleAnalysisDto parseAnalysisResponse(String jsonResponse) {
+        ArticleAnalysisDto analysis;
+        try (JsonParser parser = jsonParser(jsonResponse)) {
+            analysis = objectMapper.readValue(parser, ArticleAnalysisDto.class);
+        } catch (IOException e) {
+            analysis = salvage(jsonResponse, new TypeReference<ArticleAnalysisDto>() { })
+                    .filter(a -> a.getSummary() != null || (a.getPredictions() != null && !a.getPredictions().isEmpty()))
+                    .orElseThrow(() -> {
+                        metrics.countLlmTruncation("discarded");
+                        log.error("Failed to parse LLM response: {}", jsonResponse);
+                        return new IllegalStateException("Failed to parse LLM response", e);
+                    });
+            metrics.countLlmTruncation("salvaged");
+            log.warn("Salvaged {} complete predictions from incomplete LLM response ({} characters)",
+                    analysis.getPredictions() != null ? analysis.getPredictions().size() : 0, jsonResponse.length());
+        }
+        if (analysis == null) {
+            throw new IllegalStateException("Failed to parse LLM response: empty response");
         }
+        return normalizeAnalysis(analysis);
     }
 
-    private String cleanJsonResponse(String response) {
-        String cleaned = response.trim();
-        if (cleaned.startsWith("```json")) {
-            cleaned = cleaned.substring(7);
+    /**
+     * Splits a packed response into the analyses of its sections. Sections that are missing, cut off
+     * or do not bind are left out; the response is rejected only if no section could be used.
+     */
+    private Map<String, ArticleAnalysisDto> parsePackedResponse(String jsonResponse, List<String> ids) {
+        JsonNode root;
+        try (JsonParser parser = jsonParser(jsonResponse)) {
+            root = objectMapper.readTree(parser);
+        } catch (IOException e) {
+            root = JsonSalvage.salvage(objectMapper, jsonResponse).orElse(null);
+            if (root != null) {
+                metrics.countLlmTruncation("salvaged");
+            }
         }
-        if (cleaned.startsWith("```")) {
-            cleaned = cleaned.substring(3);
+
+        Map<String, ArticleAnalysisDto> sections = new HashMap<>();
+        if (root != null && root.isObject()) {
+            for (String id : ids) {
+                JsonNode section = root.get(id);
+                if (section == null || !section.isObject()) {
+                    continue;
+                }
+                try {
+                    sections.put(id, normalizeAnalysis(objectMapper.treeToValue(section, ArticleAnalysisDto.class)));
+                } catch (IOException | IllegalArgumentException e) {
+                    log.warn("Section {} of packed LLM response does not parse: {}", id, e.getMessage());
+                }
+            }
         }
-        if (cleaned.endsWith("```")) {
-            cleaned = cleaned.substring(0, cleaned.length() - 3);
+        if (sections.isEmpty()) {
+            log.error("Failed to parse packed LLM response: {}", jsonResponse);
+            throw new IllegalStateException("Failed to parse packed LLM response");
         }
-        return cleaned.trim();
+        return sections;
     }
 
-    private List<String> parseJsonArrayToList(JsonNode node) {
-        List<String> result = new ArrayList<>();
-        if (node.isArray()) {
-            node.forEach(item -> result.add(item.asText()));
+    /**
+     * Fields the model left out get the same defaults as before schema-constrained output.
+     */
+    private ArticleAnalysisDto normalizeAnalysis(ArticleAnalysisDto analysis) {
+        if (analysis.getSummary() == null) {
+            analysis.setSummary("");
         }
-        return result;
+        if (analysis.getSentiment() == null) {
+            analysis.setSentiment("NEUTRAL");
+        }
+        analysis.setCompanies(nonNull(analysis.getCompanies()));
+        analysis.setCountries(nonNull(analysis.getCountries()));
+        analysis.setSectors(nonNull(analysis.getSectors()));
+
+        List<ArticleAnalysisDto.PredictionDto> predictions = nonNull(analysis.getPredictions());
+        predictions.removeIf(Objects::isNull);
+        for (ArticleAnalysisDto.PredictionDto prediction : predictions) {
+            if (prediction.getScope() == null) {
+                prediction.setScope("COMPANY");
+            }
+            if (prediction.getDirection() == null) {
+                prediction.setDirection("NEUTRAL");
+            }
+            if (prediction.getTimeHorizon() == null) {
+                prediction.setTimeHorizon("SHORT_TERM");
+            }
+            if (prediction.getConfidence() == null) {
+                prediction.setConfidence(50);
+            }
+            prediction.setTargets(nonNull(prediction.getTargets()));
+            prediction.setCountries(nonNull(prediction.getCountries()));
+            prediction.setSectors(nonNull(prediction.getSectors()));
+            prediction.setEvidence(nonNull(prediction.getEvidence()));
+        }
+        analysis.setPredictions(predictions);
+
+        if (analysis.getEvents() != null) {
+            analysis.setEvents(normalizeEvents(analysis.getEvents()));
+        }
+        return analysis;
+    }
+
+    /**
+     * Parser over the response that starts at the first JSON value, skipping a Markdown code fence
+     * without copying the text. Anything after the root value is ignored.
+     */
+    private JsonParser jsonParser(String response) throws IOException {
+        int start = 0;
+        while (start < response.length() && response.charAt(start) != '{' && response.charAt(start) != '[') {
+            start++;
+        }
+        Reader reader = new StringReader(response);
+        reader.skip(start);
+        return objectMapper.getFactory().createParser(reader);
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        return list != null ? list : new ArrayList<>();
     }
 
     /**
@@ -268,45 +1040,32 @@ public class OllamaAnalysisService {
      * @param content        full article text
      * @param companyTickers map of company name → ticker for companies already resolved in this article
      * @param articleDate    publication date of the article (for resolving relative dates)
+     * @throws OllamaUnavailableException while the Ollama circuit is open
+     * @throws OllamaBackendException     if the generation failed in transport or on the backend
      */
     public List<MarketEventDto> extractEvents(String title, String content,
                                               Map<String, String> companyTickers,
                                               LocalDate articleDate) {
+        Timer.Sample sample = Timer.start();
         String prompt = buildEventExtractionPrompt(title, content, companyTickers, articleDate);
         try {
-            String response = generate(prompt);
-            return parseEventResponse(response);
+            return generateCached(prompt, EVENTS_SCHEMA, Set.of(), (array, element) -> { }, this::parseEventResponse);
+        } catch (OllamaBackendException e) {
+            // An outage must fail the article, not store it as if it had no events
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OllamaBackendException("Interrupted while extracting events from '" + title + "'", e);
         } catch (Exception e) {
             log.warn("Failed to extract events from article '{}': {}", title, e.getMessage());
             return List.of();
+        } finally {
+            sample.stop(metrics.getExtractEventsTimer());
         }
     }
 
-    private String buildEventExtractionPrompt(String title, String content,
-                                               Map<String, String> companyTickers,
-                                               LocalDate articleDate) {
-        String today = LocalDate.now().toString();
-        String articleDateStr = articleDate != null ? articleDate.toString() : today;
-        String availableSectors = getAvailableSectorsForPrompt();
-
-        StringBuilder tickerLines = new StringBuilder();
-        if (companyTickers.isEmpty()) {
-            tickerLines.append("(none identified)");
-        } else {
-            companyTickers.forEach((name, ticker) ->
-                    tickerLines.append("  ").append(name).append(" → ").append(ticker).append("\n"));
-        }
-
-        return String.format("""
-                You are extracting scheduled financial calendar events from a news article.
-
-                TODAY: %s
-                ARTICLE DATE: %s
-
-                COMPANIES IN THIS ARTICLE (Name → Ticker):
-                %s
-
-                AVAILABLE SECTORS: %s
+    private static final PromptTemplate EVENT_EXTRACTION_PROMPT = PromptTemplate.compile("""
+                You are extracting scheduled financial calendar events from the news article at the end of this prompt.
 
                 EXTRACT ONLY these event types when a specific future date is mentioned:
                 - EARNINGS: Quarterly/annual earnings reports
@@ -315,11 +1074,12 @@ public class OllamaAnalysisService {
                 - ECONOMIC: Central bank meetings, major data releases (CPI, GDP, NFP, PMI, FOMC, etc.)
 
                 RULES:
-                - Only include events dated AFTER today (%s)
+                - Only include events dated AFTER TODAY (given below)
                 - Resolve relative dates ("next Tuesday", "this Friday") using the ARTICLE DATE
                 - Skip events with no clear specific date
                 - relevance: HIGH = major market-moving, MEDIUM = sector-relevant, LOW = minor
-                - sector: Use the sector NAME from the AVAILABLE SECTORS list above (e.g. "Technology", not "TECH")
+                - sector: Use the sector NAME from the AVAILABLE SECTORS list below (e.g. "Technology", not "TECH")
+                - companyTicker: Use the ticker from COMPANIES IN THIS ARTICLE below, or null
 
                 Respond ONLY with a JSON array. Return [] if nothing qualifies.
 
@@ -335,60 +1095,133 @@ public class OllamaAnalysisService {
                   }
                 ]
 
-                ARTICLE TITLE: %s
-                ARTICLE: %s
-                """,
-                today, articleDateStr, tickerLines.toString(), availableSectors, today, title, content);
+                AVAILABLE SECTORS: {{sectors}}
+
+                TODAY: {{today}}
+                ARTICLE DATE: {{articleDate}}
+
+                COMPANIES IN THIS ARTICLE (Name → Ticker):
+                {{companies}}
+
+                ARTICLE TITLE: {{title}}
+                ARTICLE: {{content}}
+                """);
+
+    private String buildEventExtractionPrompt(String title, String content,
+                                               Map<String, String> companyTickers,
+                                               LocalDate articleDate) {
+        String today = fixtures.today().toString();
+
+        StringBuilder tickerLines = new StringBuilder();
+        if (companyTickers.isEmpty()) {
+            tickerLines.append("(none identified)");
+        } else {
+            companyTickers.forEach((name, ticker) ->
+                    tickerLines.append("  ").append(name).append(" → ").append(ticker).append("\n"));
+        }
+
+        return EVENT_EXTRACTION_PROMPT.render(Map.of(
+                "sectors", referencePrompts.sectorCatalog(),
+                "today", today,
+                "articleDate", articleDate != null ? articleDate.toString() : today,
+                "companies", tickerLines.toString(),
+                "title", title,
+                "content", content));
     }
 
     private List<MarketEventDto> parseEventResponse(String jsonResponse) {
-        try {
-            String cleaned = cleanJsonResponse(jsonResponse);
-            JsonNode root = objectMapper.readTree(cleaned);
-
-            List<MarketEventDto> events = new ArrayList<>();
-            if (root.isArray()) {
-                for (JsonNode node : root) {
-                    String ticker = node.path("companyTicker").isNull() ? null
-                            : node.path("companyTicker").asText(null);
-
-                    MarketEventDto dto = MarketEventDto.builder()
-                            .title(node.path("title").asText(null))
-                            .date(node.path("date").asText(null))
-                            .time(node.path("time").asText("TBD"))
-                            .type(node.path("type").asText("ECONOMIC"))
-                            .relevance(node.path("relevance").asText("MEDIUM"))
-                            .companyTicker("null".equalsIgnoreCase(ticker) ? null : ticker)
-                            .sector(node.path("sector").asText(null))
-                            .build();
-
-                    if (dto.getTitle() != null && dto.getDate() != null) {
-                        events.add(dto);
-                    }
-                }
+        TypeReference<List<MarketEventDto>> type = new TypeReference<>() { };
+        List<MarketEventDto> events;
+        try (JsonParser parser = jsonParser(jsonResponse)) {
+            events = objectMapper.readValue(parser, type);
+        } catch (IOException e) {
+            events = salvage(jsonResponse, type)
+                    .orElseThrow(() -> {
+                        metrics.countLlmTruncation("discarded");
+                        return new IllegalStateException("Failed to parse event extraction response", e);
+                    });
+            metrics.countLlmTruncation("salvaged");
+            log.warn("Salvaged {} complete events from incomplete LLM response", events.size());
+        }
+        events = normalizeEvents(events);
+        log.info("Extracted {} calendar events from article", events.size());
+        return events;
+    }
+
+    /**
+     * Binds the complete parts of a cut-off or broken response, see {@link JsonSalvage}.
+     */
+    private <T> Optional<T> salvage(String jsonResponse, TypeReference<T> type) {
+        return JsonSalvage.salvage(objectMapper, jsonResponse).flatMap(node -> {
+            try {
+                return Optional.ofNullable(objectMapper.readerFor(type).<T>readValue(node));
+            } catch (IOException e) {
+                return Optional.empty();
             }
-            log.info("Extracted {} calendar events from article", events.size());
-            return events;
-        } catch (Exception e) {
-            log.warn("Failed to parse event extraction response: {}", e.getMessage());
-            return List.of();
+        });
+    }
+
+    /**
+     * Drops events without title or date and fills defaults. Models sometimes write the string "null"
+     * for a missing company.
+     */
+    private List<MarketEventDto> normalizeEvents(List<MarketEventDto> events) {
+        List<MarketEventDto> valid = new ArrayList<>();
+        if (events == null) {
+            return valid;
         }
+        for (MarketEventDto event : events) {
+            if (event == null || event.getTitle() == null || event.getDate() == null) {
+                continue;
+            }
+            if (event.getTime() == null) {
+                event.setTime("TBD");
+            }
+            if (event.getType() == null) {
+                event.setType("ECONOMIC");
+            }
+            if (event.getRelevance() == null) {
+                event.setRelevance("MEDIUM");
+            }
+            event.setCompanyTicker(nullIfNullString(event.getCompanyTicker()));
+            event.setCompanyName(nullIfNullString(event.getCompanyName()));
+            valid.add(event);
+        }
+        return valid;
+    }
+
+    private String nullIfNullString(String value) {
+        return "null".equalsIgnoreCase(value) ? null : value;
     }
 
+    /**
+     * Cached state from {@link OllamaHealthMonitor}; never blocks on a probe.
+     */
     public boolean isAvailable() {
-        try {
-            webClient.get()
-                    .uri("/")
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
+        if (fixtures.isReplaying()) {
             return true;
-        } catch (Exception e) {
-            return false;
         }
+        return healthMonitor.isAvailable();
     }
 
     public String getModelName() {
         return model;
     }
+
+    /**
+     * Model name stored with analyses from {@link #summarizeArticle}, so they are never mistaken for
+     * full analyses without predictions.
+     */
+    public String getSummaryModelName() {
+        return model + SUMMARY_MODEL_SUFFIX;
+    }
+
+    /**
+     * @param truncated the output was still cut off by {@code num_predict} after the continuations
+     */
+    private record Generation(String response, boolean truncated) {
+    }
+
+    private record PackedArticle(String title, String content, LocalDate articleDate) {
+    }
 }
\ No newline at end of file
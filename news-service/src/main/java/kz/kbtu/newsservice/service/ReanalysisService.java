@@ -0,0 +1,177 @@
+package kz.kbtu.newsservice.service;
+
+import kz.kbtu.common.dto.ArticleAnalysisDto;
+import kz.kbtu.common.entity.Article;
+import kz.kbtu.newsservice.reanalysis.ReanalysisCriteria;
+import kz.kbtu.newsservice.reanalysis.ReanalysisJob;
+import kz.kbtu.newsservice.repository.ArticleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Re-runs LLM analysis on stored article content, e.g. after switching to a new model.
+ *
+ * Matching article IDs are split into chunks that a fixed number of workers take in turn.
+ * Each worker analyzes the articles of its chunk outside any transaction, then replaces their
+ * analysis and predictions in a single transaction. Articles whose analysis fails keep their
+ * old analysis and are counted as failed. Only one job runs at a time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReanalysisService {
+
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    private final ArticleRepository articleRepository;
+    private final ArticleService articleService;
+    private final OllamaAnalysisService ollamaService;
+
+    private final Map<String, ReanalysisJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicReference<ReanalysisJob> activeJob = new AtomicReference<>();
+
+    @Value("${reanalysis.workers:4}")
+    private int workers;
+
+    @Value("${reanalysis.chunk-size:10}")
+    private int chunkSize;
+
+    /**
+     * Starts a job in the background. Returns empty if another job is still running.
+     */
+    public synchronized Optional<ReanalysisJob> start(ReanalysisCriteria criteria) {
+        ReanalysisJob running = activeJob.get();
+        if (running != null && running.getStatus() == ReanalysisJob.Status.RUNNING) {
+            return Optional.empty();
+        }
+
+        List<Long> articleIds = findCandidates(criteria);
+        ReanalysisJob job = new ReanalysisJob(UUID.randomUUID().toString(), criteria,
+                ollamaService.getModelName(), articleIds.size());
+        jobs.put(job.getId(), job);
+        activeJob.set(job);
+
+        log.info("Re-analysis job {} started: {} articles, criteria={}, model={}",
+                job.getId(), articleIds.size(), criteria, job.getTargetModel());
+        Thread.ofVirtual().name("reanalysis-" + job.getId()).start(() -> run(job, articleIds));
+        return Optional.of(job);
+    }
+
+    public Optional<ReanalysisJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public Collection<ReanalysisJob> getJobs() {
+        return jobs.values();
+    }
+
+    /**
+     * Stops the job after the chunks that are currently being analyzed; finished chunks stay committed.
+     */
+    public Optional<ReanalysisJob> cancel(String id) {
+        ReanalysisJob job = jobs.get(id);
+        if (job != null) {
+            job.cancel();
+            log.info("Re-analysis job {} cancelled", id);
+        }
+        return Optional.ofNullable(job);
+    }
+
+    private List<Long> findCandidates(ReanalysisCriteria criteria) {
+        LocalDateTime from = criteria.getFrom() != null ? criteria.getFrom().atStartOfDay() : MIN_DATE;
+        LocalDate to = criteria.getTo();
+        LocalDateTime toExclusive = to != null ? to.plusDays(1).atStartOfDay() : MAX_DATE;
+
+        String model = criteria.getAnalysisModel();
+        return model != null && !model.isBlank()
+                ? articleRepository.findReanalysisCandidatesByModel(model, from, toExclusive)
+                : articleRepository.findReanalysisCandidates(from, toExclusive);
+    }
+
+    private void run(ReanalysisJob job, List<Long> articleIds) {
+        Queue<List<Long>> chunks = new ConcurrentLinkedQueue<>();
+        int size = Math.max(1, chunkSize);
+        for (int i = 0; i < articleIds.size(); i += size) {
+            chunks.add(articleIds.subList(i, Math.min(i + size, articleIds.size())));
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < Math.max(1, workers); i++) {
+                executor.submit(() -> workLoop(job, chunks));
+            }
+        }
+
+        job.finish();
+        log.info("Re-analysis job {} {}: {} succeeded, {} failed of {}",
+                job.getId(), job.getStatus(), job.getSucceeded(), job.getFailed(), job.getTotal());
+    }
+
+    private void workLoop(ReanalysisJob job, Queue<List<Long>> chunks) {
+        List<Long> chunk;
+        while (!job.isCancelled() && (chunk = chunks.poll()) != null) {
+            processChunk(job, chunk);
+            log.info("Re-analysis job {}: {}/{} done, ETA {} s",
+                    job.getId(), job.getProcessed(), job.getTotal(), job.getEtaSeconds());
+        }
+    }
+
+    private void processChunk(ReanalysisJob job, List<Long> chunk) {
+        List<ArticleService.AnalysisUpdate> updates = new ArrayList<>();
+
+        for (Long articleId : chunk) {
+            if (job.isCancelled()) {
+                break;
+            }
+            try {
+                Optional<Article> article = articleRepository.findById(articleId);
+                if (article.isEmpty() || article.get().getContent() == null) {
+                    job.recordFailure(1);
+                    continue;
+                }
+
+                Optional<ArticleAnalysisDto> analysis =
+                        ollamaService.tryAnalyzeArticle(article.get().getTitle(), article.get().getContent());
+                if (analysis.isEmpty()) {
+                    job.recordFailure(1);
+                    continue;
+                }
+
+                updates.add(new ArticleService.AnalysisUpdate(
+                        articleId, analysis.get(), articleService.resolveCompanies(analysis.get())));
+            } catch (Exception e) {
+                log.warn("Re-analysis of article {} failed: {}", articleId, e.getMessage());
+                job.recordFailure(1);
+            }
+        }
+
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        try {
+            articleService.replaceAnalyses(updates, job.getTargetModel());
+            job.recordSuccess(updates.size());
+        } catch (Exception e) {
+            log.error("Re-analysis job {}: failed to persist chunk of {} articles", job.getId(), updates.size(), e);
+            job.recordFailure(updates.size());
+        }
+    }
+}
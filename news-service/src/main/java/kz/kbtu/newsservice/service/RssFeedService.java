@@ -5,10 +5,15 @@ import com.rometools.rome.feed.synd.SyndFeed;
 import com.rometools.rome.io.SyndFeedInput;
 import com.rometools.rome.io.XmlReader;
 import kz.kbtu.common.dto.RssArticleDto;
+import kz.kbtu.newsservice.fixtures.FixtureCorpus;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jdom2.Element;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.net.URI;
 import java.net.URL;
 import java.time.ZoneId;
@@ -16,17 +21,20 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class RssFeedService {
 
+    private final FixtureCorpus fixtures;
+
     public List<RssArticleDto> fetchFeed(String feedUrl) {
         List<RssArticleDto> articles = new ArrayList<>();
 
         try {
             log.info("Fetching RSS feed from: {}", feedUrl);
-            URL url = URI.create(feedUrl).toURL();
+            String xml = fixtures.fetch("rss", feedUrl, String.class, () -> download(feedUrl));
             SyndFeedInput input = new SyndFeedInput();
-            SyndFeed feed = input.build(new XmlReader(url));
+            SyndFeed feed = input.build(new StringReader(xml));
 
             log.info("Feed Title: {}", feed.getTitle());
             log.info("Feed Description: {}", feed.getDescription());
@@ -46,6 +54,15 @@ public class RssFeedService {
         return articles;
     }
 
+    private String download(String feedUrl) throws IOException {
+        URL url = URI.create(feedUrl).toURL();
+        try (XmlReader reader = new XmlReader(url)) {
+            StringWriter xml = new StringWriter();
+            reader.transferTo(xml);
+            return xml.toString();
+        }
+    }
+
     private RssArticleDto convertToDto(SyndEntry entry) {
         RssArticleDto dto = new RssArticleDto();
 
@@ -0,0 +1,148 @@
+package kz.kbtu.newsservice.service;
+
+import kz.kbtu.common.entity.RssFeed;
+import kz.kbtu.newsservice.jobs.ScrapeJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs scrape jobs on the bounded job executor: its pool size caps how many jobs run at once,
+ * further jobs wait in its queue, and submissions beyond the queue are rejected.
+ * A feed belongs to at most one unfinished job at a time.
+ */
+@Service
+@Slf4j
+public class ScrapeJobService {
+
+    private final NewsProcessingService newsProcessingService;
+    private final ThreadPoolTaskExecutor scrapeJobExecutor;
+
+    private final Map<String, ScrapeJob> jobs = new ConcurrentHashMap<>();
+    private final Set<Long> runningFeeds = ConcurrentHashMap.newKeySet();
+
+    @Value("${jobs.history-size:200}")
+    private int historySize;
+
+    public ScrapeJobService(NewsProcessingService newsProcessingService,
+                            @Qualifier("scrapeJobExecutor") ThreadPoolTaskExecutor scrapeJobExecutor) {
+        this.newsProcessingService = newsProcessingService;
+        this.scrapeJobExecutor = scrapeJobExecutor;
+    }
+
+    /**
+     * Submits a job for those of the given feeds that are not already part of another job.
+     *
+     * @return empty if every feed is already running
+     * @throws TaskRejectedException if the job queue is full
+     */
+    public Optional<ScrapeJob> submit(List<RssFeed> feeds, String trigger) {
+        List<RssFeed> claimed = feeds.stream()
+                .filter(feed -> runningFeeds.add(feed.getId()))
+                .toList();
+        if (claimed.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ScrapeJob job = new ScrapeJob(UUID.randomUUID().toString(), trigger,
+                claimed.stream().map(RssFeed::getName).toList());
+        jobs.put(job.getId(), job);
+        try {
+            scrapeJobExecutor.execute(() -> run(job, claimed));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            claimed.forEach(feed -> runningFeeds.remove(feed.getId()));
+            throw e;
+        }
+
+        log.info("Scrape job {} ({}) queued for {} feed(s)", job.getId(), trigger, claimed.size());
+        pruneHistory();
+        return Optional.of(job);
+    }
+
+    public boolean isRunning(Long feedId) {
+        return runningFeeds.contains(feedId);
+    }
+
+    public Optional<ScrapeJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * All known jobs, newest first.
+     */
+    public List<ScrapeJob> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(ScrapeJob::getSubmittedAt).reversed())
+                .toList();
+    }
+
+    public Optional<ScrapeJob> cancel(String id) {
+        ScrapeJob job = jobs.get(id);
+        if (job != null && !job.isFinished()) {
+            job.cancel();
+            log.info("Scrape job {} cancelled", id);
+        }
+        return Optional.ofNullable(job);
+    }
+
+    private void run(ScrapeJob job, List<RssFeed> feeds) {
+        if (job.isCancelled()) {
+            feeds.forEach(feed -> runningFeeds.remove(feed.getId()));
+            job.finish();
+            return;
+        }
+
+        job.start();
+        // Feeds of one job share the pipeline, which bounds the actual work in flight
+        try (ExecutorService feedRunner = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (RssFeed feed : feeds) {
+                feedRunner.submit(() -> runFeed(job, feed));
+            }
+        }
+        job.finish();
+
+        log.info("Scrape job {} {}: {} succeeded, {} skipped, {} failed",
+                job.getId(), job.getStatus(), job.getSucceeded(), job.getSkipped(), job.getFailed());
+    }
+
+    private void runFeed(ScrapeJob job, RssFeed feed) {
+        try {
+            if (!job.isCancelled()) {
+                log.info("Polling feed '{}' (job {})", feed.getName(), job.getId());
+                newsProcessingService.processRssFeed(feed.getUrl(), job::addRun);
+            }
+            job.feedDone(feed.getName(), null);
+        } catch (Exception e) {
+            log.error("Feed '{}' run failed", feed.getName(), e);
+            job.feedDone(feed.getName(), e);
+        } finally {
+            runningFeeds.remove(feed.getId());
+        }
+    }
+
+    private void pruneHistory() {
+        int excess = jobs.size() - historySize;
+        if (excess <= 0) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(ScrapeJob::isFinished)
+                .sorted(Comparator.comparing(ScrapeJob::getSubmittedAt))
+                .limit(excess)
+                .forEach(job -> jobs.remove(job.getId()));
+    }
+}
@@ -17,6 +17,7 @@ public class TickerLookupService {
 
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final UnlistedCompanyCache unlistedCompanies;
 
     private static final Set<String> MAJOR_EXCHANGES = Set.of(
             "NYSE", "NASDAQ", "LSE", "TSE", "HKEX", "SSE", "SZSE",
@@ -45,12 +46,14 @@ public class TickerLookupService {
 
     public TickerLookupService(
             @Value("${twelvedata.base-url:https://api.twelvedata.com}") String baseUrl,
-            @Value("${twelvedata.api-key:demo}") String apiKey) {
+            @Value("${twelvedata.api-key:demo}") String apiKey,
+            UnlistedCompanyCache unlistedCompanies) {
         this.webClient = WebClient.builder()
                 .baseUrl(baseUrl)
                 .defaultHeader("Authorization", "apikey " + apiKey)
                 .build();
         this.objectMapper = new ObjectMapper();
+        this.unlistedCompanies = unlistedCompanies;
     }
 
     public record TickerResult(String ticker, String exchange, String instrumentName, String country) {}
@@ -58,8 +61,13 @@ public class TickerLookupService {
     /**
      * Looks up a company name against Twelve Data symbol_search API.
      * Returns the best match on a major exchange, or null if the company is not publicly traded.
+     * Names without a match are remembered for a while and rejected without calling the API.
      */
     public TickerResult lookupTicker(String companyName) {
+        if (unlistedCompanies.isUnlisted(companyName)) {
+            log.info("Skipping lookup for '{}' — no listed match last time", companyName);
+            return null;
+        }
         for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
             try {
                 String responseBody = webClient.get()
@@ -105,8 +113,14 @@ public class TickerLookupService {
             JsonNode root = objectMapper.readTree(responseBody);
             JsonNode data = root.path("data");
 
-            if (!data.isArray() || data.isEmpty()) {
+            if (!data.isArray()) {
+                // Error bodies (e.g. {"code": 429, "status": "error"}) say nothing about the company
+                log.warn("Unexpected Twelve Data response for '{}': {}", companyName, responseBody);
+                return null;
+            }
+            if (data.isEmpty()) {
                 log.info("No results found for company '{}'", companyName);
+                unlistedCompanies.remember(companyName);
                 return null;
             }
 
@@ -136,6 +150,7 @@ public class TickerLookupService {
             }
 
             log.info("No verified public company match found for '{}'", companyName);
+            unlistedCompanies.remember(companyName);
             return null;
 
         } catch (Exception e) {
@@ -0,0 +1,106 @@
+package kz.kbtu.newsservice.service;
+
+import kz.kbtu.common.entity.UnlistedCompany;
+import kz.kbtu.newsservice.metrics.NewsMetrics;
+import kz.kbtu.newsservice.repository.UnlistedCompanyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers company names that Twelve Data has no listed match for (OpenAI, SpaceX), so that the next
+ * mention does not repeat the symbol search and its rate limit back-off.
+ *
+ * Only definitive "no match" answers are recorded; failed lookups are retried on the next mention.
+ * Entries expire after {@code company.unlisted.ttl-days}, since private companies go public eventually.
+ * Names are normalized like company aliases and kept in the unlisted_companies table and in a bounded
+ * in-memory LRU cache in front of it.
+ */
+@Service
+@Slf4j
+public class UnlistedCompanyCache {
+
+    private final UnlistedCompanyRepository repository;
+    private final NewsMetrics metrics;
+    private final Duration ttl;
+    private final Map<String, LocalDateTime> cache;
+
+    public UnlistedCompanyCache(UnlistedCompanyRepository repository,
+                                NewsMetrics metrics,
+                                @Value("${company.unlisted.ttl-days:30}") long ttlDays,
+                                @Value("${company.unlisted.cache-max-size:10000}") int maxSize) {
+        this.repository = repository;
+        this.metrics = metrics;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalDateTime> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * @return true if the name had no listed match when it was last looked up, within the TTL
+     */
+    public boolean isUnlisted(String companyName) {
+        String name = CompanyAliasService.normalize(companyName);
+        if (name.isEmpty()) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = cache.get(name);
+        if (expiresAt == null) {
+            expiresAt = repository.findByName(name)
+                    .map(UnlistedCompany::getExpiresAt)
+                    .filter(expiry -> expiry.isAfter(now))
+                    .orElse(null);
+            if (expiresAt != null) {
+                cache.put(name, expiresAt);
+            }
+        } else if (!expiresAt.isAfter(now)) {
+            cache.remove(name);
+            expiresAt = null;
+        }
+        if (expiresAt == null) {
+            return false;
+        }
+        metrics.countUnlistedCompany("hit");
+        log.debug("'{}' is known to have no listed match until {}", companyName, expiresAt);
+        return true;
+    }
+
+    /**
+     * Records that a lookup found no listed match for the name.
+     */
+    @Transactional
+    public void remember(String companyName) {
+        String name = CompanyAliasService.normalize(companyName);
+        if (name.isEmpty()) {
+            return;
+        }
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        cache.put(name, expiresAt);
+        repository.upsert(name, expiresAt);
+        metrics.countUnlistedCompany("recorded");
+        log.info("Recorded '{}' as unlisted until {}", name, expiresAt);
+    }
+
+    @Scheduled(initialDelayString = "${company.unlisted.purge-initial-delay-ms:60000}",
+            fixedDelayString = "${company.unlisted.purge-interval-ms:86400000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired unlisted company entries", purged);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package kz.kbtu.newsservice.throttle;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limiter with additive-increase / multiplicative-decrease.
+ *
+ * While the backend keeps up the limit grows by roughly one per round of completed requests.
+ * When a request fails, or its latency per generated token rises well above the best latency
+ * seen recently (requests queueing up on the backend), the limit is cut by {@code backoffRatio}.
+ * Only one cut is applied per round: samples from requests started before the last cut are
+ * not counted again.
+ */
+public class AimdLimiter {
+
+    // How fast the latency baseline drifts up towards the observed latency (e.g. after a model change)
+    private static final double BASELINE_DRIFT = 0.02;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private double baselineNanosPerToken = Double.NaN;
+    private long lastDecreaseNanos;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double latencyTolerance) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.limit = Math.clamp(initialLimit, this.minLimit, this.maxLimit);
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * Blocks until a request may be started. The returned permit must be completed exactly once.
+     */
+    public Permit acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= (int) limit) {
+                permitReleased.await();
+            }
+            inFlight++;
+            return new Permit(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts a request if the limit allows it right now, otherwise returns null.
+     */
+    public Permit tryAcquire() {
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit) {
+                return null;
+            }
+            inFlight++;
+            return new Permit(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSample(long startNanos, long latencyNanos, int tokens, boolean failed) {
+        lock.lock();
+        try {
+            boolean saturated = inFlight >= (int) limit;
+            inFlight--;
+
+            boolean overloaded = failed;
+            if (!failed) {
+                double nanosPerToken = latencyNanos / (double) Math.max(1, tokens);
+                if (Double.isNaN(baselineNanosPerToken) || nanosPerToken < baselineNanosPerToken) {
+                    baselineNanosPerToken = nanosPerToken;
+                } else {
+                    baselineNanosPerToken += (nanosPerToken - baselineNanosPerToken) * BASELINE_DRIFT;
+                    overloaded = nanosPerToken > baselineNanosPerToken * latencyTolerance;
+                }
+            }
+
+            if (overloaded) {
+                if (startNanos - lastDecreaseNanos > 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = System.nanoTime();
+                }
+            } else if (saturated) {
+                // Only grow when the limit was actually the bottleneck
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onRelease() {
+        lock.lock();
+        try {
+            inFlight--;
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public final class Permit {
+        private final long startNanos;
+        private boolean completed;
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * @param tokens number of generated tokens, used to normalise latency across prompt sizes
+         */
+        public void success(int tokens) {
+            complete(tokens, false);
+        }
+
+        /**
+         * Timeouts and backend errors; always treated as an overload signal.
+         */
+        public void failure() {
+            complete(0, true);
+        }
+
+        /**
+         * Frees the slot without a latency sample, for requests cut short for reasons unrelated to load
+         * (e.g. a generation aborted because its output was unusable).
+         */
+        public void release() {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            onRelease();
+        }
+
+        private void complete(int tokens, boolean failed) {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            onSample(startNanos, System.nanoTime() - startNanos, tokens, failed);
+        }
+
+        public long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package kz.kbtu.newsservice.throttle;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link TokenBucket} per target host for outbound scraping, so every site is paced
+ * on its own no matter how many fetch workers are running.
+ */
+@Component
+@Slf4j
+public class HostRateLimiter {
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Value("${scraper.rate-limit.requests-per-second:1.0}")
+    private double requestsPerSecond;
+
+    @Value("${scraper.rate-limit.burst:3}")
+    private int burst;
+
+    @Value("${scraper.rate-limit.penalty-ms:30000}")
+    private long penaltyMs;
+
+    public void acquire(String url) throws InterruptedException {
+        bucketFor(url).acquire();
+    }
+
+    /**
+     * Called when a host signals overload (429/503). Holds back all requests to it for the penalty period.
+     */
+    public void penalize(String url) {
+        log.warn("Host {} is throttling us, pausing requests for {} ms", hostOf(url), penaltyMs);
+        bucketFor(url).pause(penaltyMs);
+    }
+
+    private TokenBucket bucketFor(String url) {
+        return buckets.computeIfAbsent(hostOf(url), host -> new TokenBucket(requestsPerSecond, burst));
+    }
+
+    private String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+}
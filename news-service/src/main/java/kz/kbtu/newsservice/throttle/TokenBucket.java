@@ -0,0 +1,58 @@
+package kz.kbtu.newsservice.throttle;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classic token bucket: refills at a fixed rate up to {@code capacity}, one token per request.
+ *
+ * Callers reserve their token up front and then sleep outside the lock for however long
+ * the bucket is in debt, so waiting callers are served in arrival order.
+ */
+public class TokenBucket {
+
+    private final double permitsPerSecond;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double permitsPerSecond, double capacity) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = Math.max(1, capacity);
+        this.tokens = this.capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes one token, blocking until it is available.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Puts the bucket into debt so that no request is let through for the given time,
+     * e.g. after the host answered with 429 Too Many Requests.
+     */
+    public synchronized void pause(long millis) {
+        refill(System.nanoTime());
+        tokens = Math.min(tokens, 0) - permitsPerSecond * millis / 1000.0;
+    }
+
+    private synchronized long reserve() {
+        refill(System.nanoTime());
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) (-tokens / permitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private void refill(long now) {
+        double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        tokens = Math.min(capacity, tokens + elapsedSeconds * permitsPerSecond);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,137 @@
+package kz.kbtu.newsservice.kafka;
+
+import kz.kbtu.common.dto.RssArticleDto;
+import kz.kbtu.newsservice.config.KafkaConfig;
+import kz.kbtu.newsservice.service.NewsProcessingService;
+import kz.kbtu.newsservice.service.OllamaAnalysisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.kafka.autoconfigure.KafkaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Publisher, consumer and error handler against an embedded broker; the pipeline behind the consumer is mocked.
+ */
+@SpringBootTest(classes = ArticleIngestionKafkaTest.TestConfig.class, properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.max-poll-records=16",
+        "ingestion.kafka.enabled=true",
+        "ingestion.kafka.partitions=2",
+        "ingestion.kafka.retry-interval-ms=200",
+        // The broker logs errors about its deleted log dir while shutting down
+        "logging.level.kafka=OFF",
+        "logging.level.org.apache.kafka.storage=OFF"
+})
+@EmbeddedKafka(partitions = 2, topics = "news.articles")
+// Stops the broker while the levels above still apply, not at JVM exit after other test contexts reset them
+@DirtiesContext
+class ArticleIngestionKafkaTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Configuration
+    @ImportAutoConfiguration(KafkaAutoConfiguration.class)
+    @Import({KafkaConfig.class, ArticleIngestionPublisher.class, ArticleIngestionConsumer.class})
+    static class TestConfig {
+    }
+
+    @Autowired
+    private ArticleIngestionPublisher publisher;
+
+    @MockitoBean
+    private NewsProcessingService newsProcessingService;
+
+    @MockitoBean
+    private OllamaAnalysisService ollamaService;
+
+    // externalIds of every batch handed to the pipeline, in call order
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        batches.clear();
+        when(ollamaService.isAvailable()).thenReturn(true);
+    }
+
+    @Test
+    void publishedArticlesAreProcessedInBatches() throws Exception {
+        doAnswer(invocation -> {
+            batches.add(externalIds(invocation.getArgument(0)));
+            return null;
+        }).when(newsProcessingService).processArticles(anyList(), anyString());
+
+        List<String> published = List.of("batch-1", "batch-2", "batch-3", "batch-4", "batch-5");
+        published.forEach(id -> publisher.publish(article(id)));
+
+        await().atMost(TIMEOUT).untilAsserted(() ->
+                assertThat(batches.stream().flatMap(List::stream)).containsAll(published));
+        assertThat(batches.stream().flatMap(List::stream).filter(published::contains)).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void failedBatchIsRedeliveredByTheErrorHandler() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            List<String> ids = externalIds(invocation.getArgument(0));
+            batches.add(ids);
+            if (ids.contains("retry-1") && calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("Pipeline failed");
+            }
+            return null;
+        }).when(newsProcessingService).processArticles(anyList(), anyString());
+
+        publisher.publish(article("retry-1"));
+
+        await().atMost(TIMEOUT).untilAsserted(() ->
+                assertThat(batches.stream().filter(ids -> ids.contains("retry-1"))).hasSize(2));
+    }
+
+    @Test
+    void batchIsRedeliveredWhileOllamaIsUnavailable() throws Exception {
+        when(ollamaService.isAvailable()).thenReturn(false, false, true);
+        doAnswer(invocation -> {
+            batches.add(externalIds(invocation.getArgument(0)));
+            return null;
+        }).when(newsProcessingService).processArticles(anyList(), anyString());
+
+        publisher.publish(article("unavailable-1"));
+
+        await().atMost(TIMEOUT).untilAsserted(() ->
+                assertThat(batches.stream().flatMap(List::stream)).contains("unavailable-1"));
+        assertThat(batches.stream().flatMap(List::stream).filter("unavailable-1"::equals)).hasSize(1);
+    }
+
+    private static RssArticleDto article(String externalId) {
+        return RssArticleDto.builder()
+                .externalId(externalId)
+                .title("Article " + externalId)
+                .url("https://example.com/" + externalId)
+                .description("Description of " + externalId)
+                .publishedAt(LocalDateTime.of(2025, 1, 15, 9, 30))
+                .build();
+    }
+
+    private static List<String> externalIds(List<RssArticleDto> articles) {
+        return articles.stream().map(RssArticleDto::getExternalId).toList();
+    }
+}
@@ -0,0 +1,159 @@
+package kz.kbtu.newsservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kz.kbtu.common.entity.Company;
+import kz.kbtu.common.entity.EconomySector;
+import kz.kbtu.common.llm.LlmClientConfig;
+import kz.kbtu.common.llm.LlmResponseCache;
+import kz.kbtu.common.llm.OllamaClient;
+import kz.kbtu.newsservice.config.OllamaConfig;
+import kz.kbtu.newsservice.fixtures.FixtureCorpus;
+import kz.kbtu.newsservice.llm.OllamaBackendPool;
+import kz.kbtu.newsservice.llm.OllamaCircuitBreaker;
+import kz.kbtu.newsservice.metrics.NewsMetrics;
+import kz.kbtu.newsservice.prompt.ReferenceDataPrompts;
+import kz.kbtu.newsservice.repository.CompanyRepository;
+import kz.kbtu.newsservice.repository.CountryRepository;
+import kz.kbtu.newsservice.repository.EconomySectorRepository;
+import kz.kbtu.ollamasimulator.LatencyDistribution;
+import kz.kbtu.ollamasimulator.OllamaSimulator;
+import kz.kbtu.ollamasimulator.ResponseScript;
+import kz.kbtu.ollamasimulator.SimulatorConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Company creation with the industry-to-sector mapping answered by {@link OllamaSimulator}; the data sources
+ * and repositories are mocked.
+ */
+@SpringBootTest(classes = CompanySimulatorTest.TestConfig.class, properties = "llm.cache.enabled=false")
+class CompanySimulatorTest {
+
+    private static final ResponseScript SCRIPT = new ResponseScript();
+    private static final OllamaSimulator SIMULATOR = startSimulator();
+
+    @Configuration
+    @Import({CompanyService.class, OllamaBackendPool.class, OllamaCircuitBreaker.class, OllamaConfig.class,
+            OllamaClient.class, LlmClientConfig.class, LlmResponseCache.class, NewsMetrics.class,
+            FixtureCorpus.class, ReferenceDataPrompts.class})
+    static class TestConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @DynamicPropertySource
+    static void ollamaUrl(DynamicPropertyRegistry registry) {
+        registry.add("ollama.url", SIMULATOR::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopSimulator() {
+        SIMULATOR.close();
+    }
+
+    @Autowired
+    private CompanyService companyService;
+
+    @MockitoBean
+    private CompanyRepository companyRepository;
+
+    @MockitoBean
+    private CompanyAliasService aliasService;
+
+    @MockitoBean
+    private CountryRepository countryRepository;
+
+    @MockitoBean
+    private EconomySectorRepository sectorRepository;
+
+    @MockitoBean
+    private TickerLookupService tickerLookupService;
+
+    @MockitoBean
+    private FinnhubService finnhubService;
+
+    @MockitoBean
+    private WikipediaService wikipediaService;
+
+    @MockitoBean
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        when(sectorRepository.findAll()).thenReturn(List.of(sector("TECH"), sector("FINANCE")));
+        when(sectorRepository.findByCode(anyString()))
+                .thenAnswer(invocation -> Optional.of(sector(invocation.getArgument(0))));
+        when(companyRepository.save(any(Company.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void industryIsMappedToScriptedSectors() {
+        listed("Nvidia", "NVDA", "Semiconductors");
+        SCRIPT.respond("INDUSTRY: Semiconductors", "[\"TECH\"]");
+
+        Company company = companyService.getOrCreateCompany("Nvidia");
+
+        assertThat(company.getTicker()).isEqualTo("NVDA");
+        assertThat(company.getSectors()).extracting(EconomySector::getCode).containsExactly("TECH");
+    }
+
+    @Test
+    void companyIsCreatedWithoutSectorsWhenMappingFails() {
+        listed("JPMorgan Chase", "JPM", "Banking");
+        SCRIPT.fail("INDUSTRY: Banking", 500);
+
+        Company company = companyService.getOrCreateCompany("JPMorgan Chase");
+
+        assertThat(company.getTicker()).isEqualTo("JPM");
+        assertThat(company.getSectors()).isEmpty();
+    }
+
+    private void listed(String name, String ticker, String industry) {
+        when(tickerLookupService.lookupTicker(name))
+                .thenReturn(new TickerLookupService.TickerResult(ticker, "NASDAQ", name, "United States"));
+        when(finnhubService.getProfile(ticker))
+                .thenReturn(new FinnhubService.CompanyProfile(industry, null, null, 1000.0, "1999-01-22", "US", "USD"));
+    }
+
+    private static EconomySector sector(String code) {
+        return EconomySector.builder().code(code).name(code).build();
+    }
+
+    private static OllamaSimulator startSimulator() {
+        try {
+            return OllamaSimulator.start(SimulatorConfig.builder()
+                    .port(0)
+                    .tokensPerSecond(0)
+                    .firstTokenLatency(LatencyDistribution.fixed(Duration.ZERO))
+                    .script(SCRIPT)
+                    .build());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package kz.kbtu.newsservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kz.kbtu.common.dto.ArticleAnalysisDto;
+import kz.kbtu.common.entity.Article;
+import kz.kbtu.common.llm.LlmClientConfig;
+import kz.kbtu.common.llm.LlmResponseCache;
+import kz.kbtu.common.llm.OllamaClient;
+import kz.kbtu.newsservice.config.OllamaConfig;
+import kz.kbtu.newsservice.fixtures.FixtureCorpus;
+import kz.kbtu.newsservice.llm.OllamaBackendPool;
+import kz.kbtu.newsservice.llm.OllamaCircuitBreaker;
+import kz.kbtu.newsservice.llm.OllamaHealthMonitor;
+import kz.kbtu.newsservice.llm.TokenBudget;
+import kz.kbtu.newsservice.metrics.NewsMetrics;
+import kz.kbtu.newsservice.pipeline.PipelineRun;
+import kz.kbtu.newsservice.prefilter.PredictiveFilter;
+import kz.kbtu.newsservice.prompt.ReferenceDataPrompts;
+import kz.kbtu.newsservice.repository.EconomySectorRepository;
+import kz.kbtu.ollamasimulator.LatencyDistribution;
+import kz.kbtu.ollamasimulator.OllamaSimulator;
+import kz.kbtu.ollamasimulator.ResponseScript;
+import kz.kbtu.ollamasimulator.SimulatorConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Scraped articles resumed at ANALYZE against {@link OllamaSimulator}: the LLM path is real (client, backend
+ * pool, streaming, continuation), persistence and scraping are mocked.
+ */
+@SpringBootTest(classes = NewsProcessingSimulatorTest.TestConfig.class, properties = {
+        "llm.cache.enabled=false",
+        "prefilter.enabled=false",
+        "ollama.streaming=true",
+        // A fixed limit of four concurrent generations, all usable by batch work, for the throughput check
+        "ollama.concurrency.initial-limit=4",
+        "ollama.concurrency.max-limit=4",
+        "ollama.scheduling.reserved-interactive=0",
+        // Scripted responses match one article's title; a pack prompt would hold several
+        "ollama.packing.enabled=false",
+        // The scripted failure is logged with its stack trace by the pipeline
+        "logging.level.kz.kbtu.newsservice.pipeline=OFF"
+})
+class NewsProcessingSimulatorTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ResponseScript SCRIPT = new ResponseScript();
+    // Every generation takes this long before its first token, like prompt processing on a real backend
+    private static final Duration GENERATION_LATENCY = Duration.ofMillis(250);
+    private static final OllamaSimulator SIMULATOR = startSimulator();
+    private static final AtomicLong IDS = new AtomicLong();
+
+    @Configuration
+    @Import({NewsProcessingService.class, OllamaAnalysisService.class, OllamaBackendPool.class,
+            OllamaCircuitBreaker.class, OllamaHealthMonitor.class, OllamaConfig.class, OllamaClient.class,
+            LlmClientConfig.class, LlmResponseCache.class, NewsMetrics.class, FixtureCorpus.class,
+            TokenBudget.class, ReferenceDataPrompts.class, PredictiveFilter.class})
+    static class TestConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @DynamicPropertySource
+    static void ollamaUrl(DynamicPropertyRegistry registry) {
+        registry.add("ollama.url", SIMULATOR::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopSimulator() {
+        SIMULATOR.close();
+    }
+
+    @Autowired
+    private NewsProcessingService newsProcessingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private ArticleService articleService;
+
+    @MockitoBean
+    private RssFeedService rssFeedService;
+
+    @MockitoBean
+    private ArticleScraperService scraperService;
+
+    @MockitoBean
+    private FileStorageService fileStorageService;
+
+    @MockitoBean
+    private MarketEventService marketEventService;
+
+    @MockitoBean
+    private EconomySectorRepository sectorRepository;
+
+    @Test
+    void streamedAnalysisIsPersisted() throws Exception {
+        Article article = article("Chipmaker raises guidance");
+        SCRIPT.respond(article.getTitle(), analysis("Guidance raised", 2).toString());
+
+        PipelineRun run = resume(article);
+
+        assertThat(run.getSucceeded()).isEqualTo(1);
+        ArticleAnalysisDto persisted = persistedAnalysis(article);
+        assertThat(persisted.getSummary()).isEqualTo("Guidance raised");
+        assertThat(persisted.getPredictions())
+                .extracting(ArticleAnalysisDto.PredictionDto::getDirection)
+                .containsExactly("BEARISH", "BULLISH");
+    }
+
+    @Test
+    void outputCutOffAtNumPredictIsContinued() throws Exception {
+        Article article = article("Central bank minutes in full");
+        // Far beyond the 6000 tokens (24000 characters) of the first generation
+        ObjectNode response = analysis("Minutes released", 200);
+        assertThat(response.toString().length()).isGreaterThan(24_000);
+        SCRIPT.respond(article.getTitle(), response.toString());
+        double continued = truncations("continued");
+
+        PipelineRun run = resume(article);
+
+        assertThat(run.getSucceeded()).isEqualTo(1);
+        assertThat(persistedAnalysis(article).getPredictions()).hasSize(200);
+        assertThat(truncations("continued")).isEqualTo(continued + 1);
+    }
+
+    @Test
+    void backendFailureHandsTheArticleToRecovery() throws Exception {
+        Article article = article("Retailer misses estimates");
+        SCRIPT.fail(article.getTitle(), 500);
+
+        PipelineRun run = resume(article);
+
+        assertThat(run.getFailed()).isEqualTo(1);
+        verify(articleService).recordProcessingFailure(eq(article.getId()), contains("OllamaBackendException"), eq(true));
+        verify(articleService, never()).processAnalysis(eq(article.getId()), any(), anyString(), anyMap());
+    }
+
+    @Test
+    void articlesAreAnalyzedConcurrently() throws Exception {
+        // Connections and class loading would otherwise be counted against the first generations
+        Article warmUp = article("Issuer schedules earnings call");
+        SCRIPT.respond(warmUp.getTitle(), analysis("Call scheduled", 1).toString());
+        assertThat(resume(warmUp).getSucceeded()).isEqualTo(1);
+
+        int count = 16;
+        List<Article> articles = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Article article = article("Quarterly update from issuer " + i);
+            SCRIPT.respond(article.getTitle(), analysis("Update " + i, 1).toString());
+            when(articleService.processAnalysis(eq(article.getId()), any(), anyString(), anyMap())).thenReturn(article);
+            articles.add(article);
+        }
+        Duration serial = GENERATION_LATENCY.multipliedBy(count);
+
+        long start = System.nanoTime();
+        PipelineRun run = newsProcessingService.resumeArticles(articles);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(run.getSucceeded()).isEqualTo(count);
+        // One generation after another could not finish sooner than the sum of their latencies
+        assertThat(elapsed).isLessThan(serial);
+    }
+
+    private PipelineRun resume(Article article) throws InterruptedException {
+        when(articleService.processAnalysis(eq(article.getId()), any(), anyString(), anyMap())).thenReturn(article);
+        return newsProcessingService.resumeArticles(List.of(article));
+    }
+
+    private ArticleAnalysisDto persistedAnalysis(Article article) {
+        ArgumentCaptor<ArticleAnalysisDto> analysis = ArgumentCaptor.forClass(ArticleAnalysisDto.class);
+        verify(articleService).processAnalysis(eq(article.getId()), analysis.capture(), anyString(), anyMap());
+        return analysis.getValue();
+    }
+
+    private double truncations(String outcome) {
+        return meterRegistry.counter("news.llm.truncated", "outcome", outcome).count();
+    }
+
+    private static Article article(String title) {
+        long id = IDS.incrementAndGet();
+        Article article = Article.builder()
+                .cnbcId("sim-" + id)
+                .title(title)
+                .url("https://example.com/sim-" + id)
+                .publishedAt(LocalDateTime.of(2025, 1, 15, 9, 30))
+                .content(title + ". The company said demand stayed strong through the quarter.")
+                .isScraped(true)
+                .build();
+        article.setId(id);
+        return article;
+    }
+
+    private static ObjectNode analysis(String summary, int predictions) {
+        ObjectNode analysis = MAPPER.createObjectNode()
+                .put("summary", summary)
+                .put("sentiment", "POSITIVE");
+        analysis.putArray("companies").add("Acme");
+        analysis.putArray("countries");
+        analysis.putArray("sectors");
+        ArrayNode items = analysis.putArray("predictions");
+        for (int i = 1; i <= predictions; i++) {
+            ObjectNode prediction = items.addObject()
+                    .put("scope", "COMPANY")
+                    .put("direction", i % 2 == 0 ? "BULLISH" : "BEARISH")
+                    .put("timeHorizon", "SHORT_TERM")
+                    .put("confidence", 50 + i % 40)
+                    .put("rationale", "Rationale " + i + ": order book number " + (i * 7919 % 10007)
+                            + " points to a shift in quarter " + (i % 4 + 1));
+            prediction.putArray("targets").add("Acme");
+        }
+        analysis.putArray("events");
+        return analysis;
+    }
+
+    private static OllamaSimulator startSimulator() {
+        try {
+            return OllamaSimulator.start(SimulatorConfig.builder()
+                    .port(0)
+                    .tokensPerSecond(0)
+                    .parallel(4)
+                    .firstTokenLatency(LatencyDistribution.fixed(GENERATION_LATENCY))
+                    .script(SCRIPT)
+                    .build());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package kz.kbtu.ollamasimulator;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Distribution of a simulated delay, e.g. the time to the first token (prompt processing).
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    Duration sample(Random random);
+
+    static LatencyDistribution none() {
+        return fixed(Duration.ZERO);
+    }
+
+    static LatencyDistribution fixed(Duration latency) {
+        return random -> latency;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long range = max.toMillis() - min.toMillis();
+        return random -> min.plusMillis(range > 0 ? random.nextLong(range + 1) : 0);
+    }
+
+    /**
+     * Normal distribution cut off at zero.
+     */
+    static LatencyDistribution normal(Duration mean, Duration stdDev) {
+        return random -> Duration.ofMillis(Math.max(0,
+                Math.round(mean.toMillis() + random.nextGaussian() * stdDev.toMillis())));
+    }
+
+    /**
+     * Log-normal around {@code median}; {@code sigma} of 0.5 to 1 gives the long tail of real inference latency.
+     */
+    static LatencyDistribution logNormal(Duration median, double sigma) {
+        return random -> Duration.ofMillis(Math.round(median.toMillis() * Math.exp(sigma * random.nextGaussian())));
+    }
+
+    /**
+     * Parses {@code fixed:200}, {@code uniform:100:900}, {@code normal:500:100} or {@code lognormal:500:0.6};
+     * all durations in milliseconds. A plain number is a fixed latency.
+     */
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        try {
+            return switch (parts[0].toLowerCase()) {
+                case "none" -> none();
+                case "fixed" -> fixed(Duration.ofMillis(Long.parseLong(parts[1])));
+                case "uniform" -> uniform(Duration.ofMillis(Long.parseLong(parts[1])), Duration.ofMillis(Long.parseLong(parts[2])));
+                case "normal" -> normal(Duration.ofMillis(Long.parseLong(parts[1])), Duration.ofMillis(Long.parseLong(parts[2])));
+                case "lognormal" -> logNormal(Duration.ofMillis(Long.parseLong(parts[1])), Double.parseDouble(parts[2]));
+                default -> fixed(Duration.ofMillis(Long.parseLong(parts[0])));
+            };
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid latency distribution: " + spec, e);
+        }
+    }
+}
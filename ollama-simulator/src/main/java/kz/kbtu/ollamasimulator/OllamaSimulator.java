@@ -0,0 +1,350 @@
+package kz.kbtu.ollamasimulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Emulates the Ollama endpoints used by this project: {@code GET /}, {@code POST /api/generate},
+ * {@code POST /api/chat}, {@code POST /api/embeddings} and {@code POST /api/embed}, streaming (NDJSON)
+ * and non-streaming.
+ *
+ * Each request waits for one of {@code parallel} slots, then for the sampled first-token latency, then
+ * produces its text at {@code tokens-per-second}, one token per four characters. {@code num_predict} is
+ * honoured: longer text is cut off with {@code done_reason: "length"}. A chat request whose last message
+ * is from the assistant continues that message, like Ollama's prefill. Failures are injected at random
+ * ({@code errorRate}, {@code stallRate}) or by {@link ResponseScript} rules.
+ *
+ * Runs on virtual threads, so thousands of concurrent connections only cost memory.
+ */
+@Slf4j
+public class OllamaSimulator implements AutoCloseable {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final SimulatorConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Semaphore slots;
+    private final Random random;
+    private final HttpServer server;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong tokens = new AtomicLong();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger generating = new AtomicInteger();
+
+    public OllamaSimulator(SimulatorConfig config) throws IOException {
+        this.config = config;
+        this.slots = new Semaphore(Math.max(1, config.getParallel()), true);
+        this.random = new Random(config.getSeed());
+        this.server = HttpServer.create(new InetSocketAddress(config.getBindAddress(), config.getPort()), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+    }
+
+    public static OllamaSimulator start(SimulatorConfig config) throws IOException {
+        OllamaSimulator simulator = new OllamaSimulator(config);
+        simulator.server.start();
+        log.info("Ollama simulator listening on {} ({} parallel, {} tokens/s)", simulator.getBaseUrl(),
+                config.getParallel(), config.getTokensPerSecond());
+        return simulator;
+    }
+
+    /**
+     * Base URL to configure as {@code OLLAMA_URL}, with the actual port if it was 0. Loopback if the simulator
+     * listens on every interface.
+     */
+    public String getBaseUrl() {
+        InetAddress address = server.getAddress().getAddress();
+        String host = address.isAnyLocalAddress() ? "127.0.0.1"
+                : address instanceof Inet6Address ? "[" + address.getHostAddress() + "]"
+                : address.getHostAddress();
+        return "http://" + host + ":" + server.getAddress().getPort();
+    }
+
+    public Stats getStats() {
+        return new Stats(requests.get(), failures.get(), tokens.get(), waiting.get(), generating.get());
+    }
+
+    /**
+     * @param requests   generation and embedding requests received
+     * @param failures   injected or scripted failures
+     * @param tokens     tokens generated
+     * @param waiting    requests waiting for a slot
+     * @param generating requests holding a slot
+     */
+    public record Stats(long requests, long failures, long tokens, int waiting, int generating) {
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/") && "GET".equals(exchange.getRequestMethod())) {
+                send(exchange, 200, "text/plain", "Ollama is running");
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, "text/plain", "Method not allowed");
+                return;
+            }
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            requests.incrementAndGet();
+            switch (path) {
+                case "/api/generate" -> generate(exchange, request, "generate");
+                case "/api/chat" -> generate(exchange, request, "chat");
+                case "/api/embeddings" -> embeddings(exchange, request, false);
+                case "/api/embed" -> embeddings(exchange, request, true);
+                default -> send(exchange, 404, "text/plain", "Not found");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Client went away, e.g. it cancelled a stream
+            log.debug("Simulator connection closed: {}", e.getMessage());
+        }
+    }
+
+    private void generate(HttpExchange exchange, JsonNode request, String endpoint)
+            throws IOException, InterruptedException {
+        String prompt = prompt(request, endpoint);
+        String prefill = prefill(request, endpoint);
+        ResponseScript.Rule rule = config.getScript().match(endpoint, prompt);
+        if (rule != null && rule.status() != null) {
+            failures.incrementAndGet();
+            send(exchange, rule.status(), "application/json", error("scripted failure"));
+            return;
+        }
+        if (chance(config.getErrorRate())) {
+            failures.incrementAndGet();
+            send(exchange, config.getErrorStatus(), "application/json", error("injected failure"));
+            return;
+        }
+
+        String text = rule != null ? rule.response() : ResponseScript.defaultResponse(request.get("format"));
+        if (prefill != null) {
+            // Continue the assistant message: the rest of the full text, or nothing if it does not match
+            text = text.startsWith(prefill) ? text.substring(prefill.length()) : "";
+        }
+        List<String> pieces = tokenize(text);
+        int limit = request.path("options").path("num_predict").asInt(-1);
+        boolean cutOff = limit >= 0 && pieces.size() > limit;
+        if (cutOff) {
+            pieces = pieces.subList(0, limit);
+        }
+        boolean stream = request.path("stream").asBoolean(true);
+        String model = request.path("model").asText("simulated");
+
+        waiting.incrementAndGet();
+        slots.acquire();
+        waiting.decrementAndGet();
+        generating.incrementAndGet();
+        try {
+            Instant started = Instant.now();
+            if (chance(config.getStallRate())) {
+                failures.incrementAndGet();
+                Thread.sleep(config.getStallDuration());
+                return;
+            }
+            Thread.sleep(sampleLatency());
+
+            if (!stream) {
+                Thread.sleep(generationTime(pieces.size()));
+                tokens.addAndGet(pieces.size());
+                ObjectNode response = chunk(model, endpoint, String.join("", pieces));
+                finish(response, cutOff, pieces.size(), prompt, started);
+                send(exchange, 200, "application/json", response.toString());
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream body = exchange.getResponseBody();
+            long interval = tokenIntervalNanos();
+            long next = System.nanoTime();
+            for (String piece : pieces) {
+                next += interval;
+                long delay = next - System.nanoTime();
+                if (delay > 0) {
+                    Thread.sleep(Duration.ofNanos(delay));
+                }
+                writeLine(body, chunk(model, endpoint, piece));
+                tokens.incrementAndGet();
+            }
+            ObjectNode last = chunk(model, endpoint, "");
+            finish(last, cutOff, pieces.size(), prompt, started);
+            writeLine(body, last);
+        } finally {
+            generating.decrementAndGet();
+            slots.release();
+        }
+    }
+
+    private void embeddings(HttpExchange exchange, JsonNode request, boolean batch)
+            throws IOException, InterruptedException {
+        if (chance(config.getErrorRate())) {
+            failures.incrementAndGet();
+            send(exchange, config.getErrorStatus(), "application/json", error("injected failure"));
+            return;
+        }
+        waiting.incrementAndGet();
+        slots.acquire();
+        waiting.decrementAndGet();
+        generating.incrementAndGet();
+        try {
+            Thread.sleep(sampleLatency());
+            ObjectNode response = objectMapper.createObjectNode();
+            if (batch) {
+                ArrayNode embeddings = response.putArray("embeddings");
+                JsonNode input = request.path("input");
+                if (input.isArray()) {
+                    input.forEach(text -> embeddings.add(embedding(text.asText())));
+                } else {
+                    embeddings.add(embedding(input.asText()));
+                }
+            } else {
+                response.set("embedding", embedding(request.path("prompt").asText()));
+            }
+            send(exchange, 200, "application/json", response.toString());
+        } finally {
+            generating.decrementAndGet();
+            slots.release();
+        }
+    }
+
+    /**
+     * Deterministic unit vector seeded by the text, so equal texts get equal embeddings.
+     */
+    private ArrayNode embedding(String text) {
+        Random generator = new Random(text.hashCode());
+        double[] values = new double[config.getEmbeddingDimensions()];
+        double norm = 0;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = generator.nextGaussian();
+            norm += values[i] * values[i];
+        }
+        norm = Math.sqrt(norm);
+        ArrayNode vector = objectMapper.createArrayNode();
+        for (double value : values) {
+            vector.add(norm > 0 ? value / norm : 0);
+        }
+        return vector;
+    }
+
+    private ObjectNode chunk(String model, String endpoint, String text) {
+        ObjectNode chunk = objectMapper.createObjectNode();
+        chunk.put("model", model);
+        chunk.put("created_at", Instant.now().toString());
+        if (endpoint.equals("chat")) {
+            ObjectNode message = chunk.putObject("message");
+            message.put("role", "assistant");
+            message.put("content", text);
+        } else {
+            chunk.put("response", text);
+        }
+        chunk.put("done", false);
+        return chunk;
+    }
+
+    private void finish(ObjectNode chunk, boolean cutOff, int evalCount, String prompt, Instant started) {
+        chunk.put("done", true);
+        chunk.put("done_reason", cutOff ? "length" : "stop");
+        chunk.put("total_duration", Duration.between(started, Instant.now()).toNanos());
+        chunk.put("prompt_eval_count", prompt != null ? tokenize(prompt).size() : 0);
+        chunk.put("eval_count", evalCount);
+        chunk.put("eval_duration", generationTime(evalCount).toNanos());
+    }
+
+    private String prompt(JsonNode request, String endpoint) {
+        if (endpoint.equals("generate")) {
+            return request.path("prompt").asText(null);
+        }
+        for (JsonNode message : request.path("messages")) {
+            if ("user".equals(message.path("role").asText())) {
+                return message.path("content").asText(null);
+            }
+        }
+        return null;
+    }
+
+    private String prefill(JsonNode request, String endpoint) {
+        JsonNode messages = request.path("messages");
+        if (!endpoint.equals("chat") || messages.isEmpty()) {
+            return null;
+        }
+        JsonNode last = messages.get(messages.size() - 1);
+        return "assistant".equals(last.path("role").asText()) ? last.path("content").asText("") : null;
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> pieces = new ArrayList<>((text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN);
+        for (int i = 0; i < text.length(); i += CHARS_PER_TOKEN) {
+            pieces.add(text.substring(i, Math.min(text.length(), i + CHARS_PER_TOKEN)));
+        }
+        return pieces;
+    }
+
+    private long tokenIntervalNanos() {
+        return config.getTokensPerSecond() > 0 ? (long) (1_000_000_000L / config.getTokensPerSecond()) : 0;
+    }
+
+    private Duration generationTime(int tokenCount) {
+        return Duration.ofNanos(tokenIntervalNanos() * tokenCount);
+    }
+
+    private Duration sampleLatency() {
+        synchronized (random) {
+            return config.getFirstTokenLatency().sample(random);
+        }
+    }
+
+    private boolean chance(double rate) {
+        if (rate <= 0) {
+            return false;
+        }
+        synchronized (random) {
+            return random.nextDouble() < rate;
+        }
+    }
+
+    private String error(String message) {
+        return objectMapper.createObjectNode().put("error", message).toString();
+    }
+
+    private void writeLine(OutputStream body, ObjectNode chunk) throws IOException {
+        body.write((chunk.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+        body.flush();
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
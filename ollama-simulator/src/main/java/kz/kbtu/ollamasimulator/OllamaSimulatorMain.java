@@ -0,0 +1,91 @@
+package kz.kbtu.ollamasimulator;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the simulator standalone, e.g. to benchmark a service pointed at it with {@code OLLAMA_URL}:
+ *
+ * <pre>
+ * java -jar ollama-simulator-0.0.1-SNAPSHOT-exec.jar --port=11434 --parallel=4 --tokens-per-second=40 \
+ *      --latency=lognormal:400:0.6 --error-rate=0.01 --stall-rate=0 --script=responses.json
+ * </pre>
+ *
+ * It listens on 127.0.0.1 unless {@code --bind} names another address, e.g. {@code --bind=0.0.0.0} when the
+ * services run in containers.
+ *
+ * Stats are logged every {@code --stats-interval-s} seconds (default 10).
+ */
+@Slf4j
+public class OllamaSimulatorMain {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        SimulatorConfig.SimulatorConfigBuilder config = SimulatorConfig.builder();
+        if (options.containsKey("bind")) {
+            config.bindAddress(options.get("bind"));
+        }
+        if (options.containsKey("port")) {
+            config.port(Integer.parseInt(options.get("port")));
+        }
+        if (options.containsKey("parallel")) {
+            config.parallel(Integer.parseInt(options.get("parallel")));
+        }
+        if (options.containsKey("tokens-per-second")) {
+            config.tokensPerSecond(Double.parseDouble(options.get("tokens-per-second")));
+        }
+        if (options.containsKey("latency")) {
+            config.firstTokenLatency(LatencyDistribution.parse(options.get("latency")));
+        }
+        if (options.containsKey("error-rate")) {
+            config.errorRate(Double.parseDouble(options.get("error-rate")));
+        }
+        if (options.containsKey("error-status")) {
+            config.errorStatus(Integer.parseInt(options.get("error-status")));
+        }
+        if (options.containsKey("stall-rate")) {
+            config.stallRate(Double.parseDouble(options.get("stall-rate")));
+        }
+        if (options.containsKey("stall-ms")) {
+            config.stallDuration(Duration.ofMillis(Long.parseLong(options.get("stall-ms"))));
+        }
+        if (options.containsKey("embedding-dimensions")) {
+            config.embeddingDimensions(Integer.parseInt(options.get("embedding-dimensions")));
+        }
+        if (options.containsKey("script")) {
+            config.script(ResponseScript.load(Path.of(options.get("script"))));
+        }
+        if (options.containsKey("seed")) {
+            config.seed(Long.parseLong(options.get("seed")));
+        }
+        long statsInterval = Long.parseLong(options.getOrDefault("stats-interval-s", "10"));
+
+        OllamaSimulator simulator = OllamaSimulator.start(config.build());
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            simulator.close();
+            stopped.countDown();
+        }));
+
+        long lastTokens = 0;
+        while (!stopped.await(statsInterval, TimeUnit.SECONDS)) {
+            OllamaSimulator.Stats stats = simulator.getStats();
+            log.info("requests={} failures={} waiting={} generating={} tokens/s={}", stats.requests(),
+                    stats.failures(), stats.waiting(), stats.generating(), (stats.tokens() - lastTokens) / statsInterval);
+            lastTokens = stats.tokens();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package kz.kbtu.ollamasimulator;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * What the simulator answers. Rules are checked in order; the first whose {@code contains} text occurs in
+ * the prompt (the first user message for /api/chat) decides the response text, or the HTTP status of a
+ * scripted failure. Without a matching rule, a request with a JSON schema {@code format} gets the smallest
+ * document that satisfies the schema, {@code "format": "json"} gets {@code {}}, and free text requests get
+ * {@link #DEFAULT_TEXT}.
+ */
+public class ResponseScript {
+
+    public static final String DEFAULT_TEXT = "Simulated response.";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final List<Rule> rules = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param endpoint "generate", "chat" or null for both
+     * @param contains text the prompt must contain; null or empty matches every prompt
+     * @param response generated text
+     * @param status   HTTP status to fail with instead of generating; null to generate
+     */
+    public record Rule(String endpoint, String contains, String response, Integer status) {
+
+        boolean matches(String requestEndpoint, String prompt) {
+            return (endpoint == null || endpoint.equalsIgnoreCase(requestEndpoint))
+                    && (contains == null || contains.isEmpty() || (prompt != null && prompt.contains(contains)));
+        }
+    }
+
+    public ResponseScript respond(String contains, String response) {
+        rules.add(new Rule(null, contains, response, null));
+        return this;
+    }
+
+    public ResponseScript fail(String contains, int status) {
+        rules.add(new Rule(null, contains, null, status));
+        return this;
+    }
+
+    public ResponseScript add(Rule rule) {
+        rules.add(rule);
+        return this;
+    }
+
+    /**
+     * Reads rules from a JSON array of {@link Rule} objects.
+     */
+    public static ResponseScript load(Path file) throws IOException {
+        ResponseScript script = new ResponseScript();
+        script.rules.addAll(MAPPER.readValue(file.toFile(), new TypeReference<List<Rule>>() { }));
+        return script;
+    }
+
+    Rule match(String endpoint, String prompt) {
+        for (Rule rule : rules) {
+            if (rule.matches(endpoint, prompt)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    static String defaultResponse(JsonNode format) {
+        if (format == null || format.isNull()) {
+            return DEFAULT_TEXT;
+        }
+        if (format.isTextual()) {
+            return "{}";
+        }
+        return minimalDocument(format).toString();
+    }
+
+    /**
+     * Smallest value of the schema: objects with every property, empty arrays, the first enum value.
+     */
+    private static JsonNode minimalDocument(JsonNode schema) {
+        JsonNode enumValues = schema.get("enum");
+        if (enumValues != null && enumValues.isArray() && !enumValues.isEmpty()) {
+            return enumValues.get(0);
+        }
+        JsonNode type = schema.get("type");
+        String kind = type == null ? "object" : type.isArray() ? type.get(0).asText() : type.asText();
+        return switch (kind) {
+            case "object" -> {
+                ObjectNode object = MAPPER.createObjectNode();
+                JsonNode properties = schema.get("properties");
+                if (properties != null) {
+                    properties.properties().forEach(p -> object.set(p.getKey(), minimalDocument(p.getValue())));
+                }
+                yield object;
+            }
+            case "array" -> MAPPER.createArrayNode();
+            case "integer" -> MAPPER.getNodeFactory().numberNode(50);
+            case "number" -> MAPPER.getNodeFactory().numberNode(0.5);
+            case "boolean" -> MAPPER.getNodeFactory().booleanNode(false);
+            case "null" -> MAPPER.getNodeFactory().nullNode();
+            default -> MAPPER.getNodeFactory().textNode("simulated");
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package kz.kbtu.ollamasimulator;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Behaviour of an {@link OllamaSimulator}.
+ */
+@Getter
+@Builder
+public class SimulatorConfig {
+
+    // Loopback only by default; 0.0.0.0 to serve clients on other hosts or in containers
+    @Builder.Default
+    private String bindAddress = "127.0.0.1";
+
+    // 0 = any free port, see OllamaSimulator#getBaseUrl
+    @Builder.Default
+    private int port = 11434;
+
+    // Requests generated at the same time, like OLLAMA_NUM_PARALLEL; the rest wait in line
+    @Builder.Default
+    private int parallel = 4;
+
+    // Time to the first token once a request got a slot (prompt processing)
+    @Builder.Default
+    private LatencyDistribution firstTokenLatency = LatencyDistribution.fixed(Duration.ofMillis(200));
+
+    // Generation speed of one request
+    @Builder.Default
+    private double tokensPerSecond = 40.0;
+
+    // Share of requests answered with errorStatus right away
+    @Builder.Default
+    private double errorRate = 0.0;
+
+    @Builder.Default
+    private int errorStatus = 500;
+
+    // Share of requests that hold their slot and send nothing for stallDuration (client timeouts)
+    @Builder.Default
+    private double stallRate = 0.0;
+
+    @Builder.Default
+    private Duration stallDuration = Duration.ofMinutes(3);
+
+    @Builder.Default
+    private int embeddingDimensions = 768;
+
+    @Builder.Default
+    private ResponseScript script = new ResponseScript();
+
+    // Fixed seed for repeatable latencies and failures
+    @Builder.Default
+    private long seed = 42;
+}
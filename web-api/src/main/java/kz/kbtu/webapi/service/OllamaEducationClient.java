@@ -1,11 +1,13 @@
 package kz.kbtu.webapi.service;
 
+import kz.kbtu.common.llm.LlmResponseCache;
+import kz.kbtu.common.llm.OllamaClient;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -13,15 +15,21 @@ import java.util.regex.Pattern;
 @Slf4j
 public class OllamaEducationClient {
 
-    private final RestClient restClient;
+    private static final Map<String, Object> SCORE_OPTIONS = Map.of("temperature", 0.0, "num_predict", 3000);
+
+    private final OllamaClient ollamaClient;
+    private final LlmResponseCache responseCache;
+    private final String ollamaUrl;
 
     @Value("${ollama.model:qwen2.5:14b}")
     private String model;
 
-    public OllamaEducationClient(@Value("${ollama.url:http://localhost:11434}") String ollamaUrl) {
-        this.restClient = RestClient.builder()
-                .baseUrl(ollamaUrl)
-                .build();
+    public OllamaEducationClient(@Value("${ollama.url:http://localhost:11434}") String ollamaUrl,
+                                 OllamaClient ollamaClient,
+                                 LlmResponseCache responseCache) {
+        this.ollamaUrl = ollamaUrl;
+        this.ollamaClient = ollamaClient;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -43,23 +51,34 @@ public class OllamaEducationClient {
                 userPrediction, ourPrediction
         );
 
+        // Repeat submissions of the same scenario score the same pair of texts
+        String cacheKey = responseCache.key(model, prompt, SCORE_OPTIONS);
+        Optional<String> cached = responseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            int score = parseScore(cached.get());
+            if (score >= 0) {
+                return score;
+            }
+            responseCache.invalidate(cacheKey);
+        }
+
         try {
             Map<String, Object> request = Map.of(
                     "model", model,
                     "prompt", prompt,
                     "stream", false,
-                    "options", Map.of("temperature", 0.0, "num_predict", 3000)
+                    "options", SCORE_OPTIONS
             );
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restClient.post()
-                    .uri("/api/generate")
-                    .body(request)
-                    .retrieve()
-                    .body(Map.class);
+            Map<String, Object> response = ollamaClient.generate("education", ollamaUrl, request).block();
 
             if (response != null && response.containsKey("response")) {
-                return parseScore((String) response.get("response"));
+                String text = (String) response.get("response");
+                int score = parseScore(text);
+                if (score >= 0) {
+                    responseCache.put(cacheKey, model, text);
+                }
+                return score;
             }
         } catch (Exception e) {
             log.warn("Ollama unavailable for similarity scoring: {}", e.getMessage());
@@ -0,0 +1,102 @@
+package kz.kbtu.webapi.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kz.kbtu.common.llm.LlmClientConfig;
+import kz.kbtu.common.llm.LlmResponseCache;
+import kz.kbtu.common.llm.OllamaClient;
+import kz.kbtu.ollamasimulator.LatencyDistribution;
+import kz.kbtu.ollamasimulator.OllamaSimulator;
+import kz.kbtu.ollamasimulator.ResponseScript;
+import kz.kbtu.ollamasimulator.SimulatorConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Similarity scoring against {@link OllamaSimulator}, matched on the user's prediction text.
+ */
+@SpringBootTest(classes = OllamaEducationClientSimulatorTest.TestConfig.class, properties = "llm.cache.enabled=false")
+class OllamaEducationClientSimulatorTest {
+
+    private static final ResponseScript SCRIPT = new ResponseScript();
+    private static final OllamaSimulator SIMULATOR = startSimulator();
+
+    @Configuration
+    @Import({OllamaEducationClient.class, OllamaClient.class, LlmClientConfig.class, LlmResponseCache.class})
+    static class TestConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @DynamicPropertySource
+    static void ollamaUrl(DynamicPropertyRegistry registry) {
+        registry.add("ollama.url", SIMULATOR::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopSimulator() {
+        SIMULATOR.close();
+    }
+
+    @Autowired
+    private OllamaEducationClient educationClient;
+
+    @Test
+    void scoreIsTakenAfterTheReasoning() {
+        SCRIPT.respond("Oil rallies on OPEC cuts",
+                "<think>Both expect higher prices because of 200 fewer barrels.</think>The score is 85");
+
+        assertThat(educationClient.scoreSimilarity("Oil rallies on OPEC cuts", "Crude rises as supply tightens"))
+                .isEqualTo(85);
+    }
+
+    @Test
+    void reasoningCutOffAtNumPredictFallsBack() {
+        // Never closes the <think> block within the 3000 tokens (12000 characters) allowed
+        StringBuilder reasoning = new StringBuilder("<think>");
+        for (int i = 1; reasoning.length() < 16_000; i++) {
+            reasoning.append("Step ").append(i).append(": weighing driver ").append(i * 7919 % 10007).append(". ");
+        }
+        SCRIPT.respond("Bank margins widen", reasoning.append("</think>40").toString());
+
+        assertThat(educationClient.scoreSimilarity("Bank margins widen", "Lenders profit from higher rates"))
+                .isEqualTo(-1);
+    }
+
+    @Test
+    void backendErrorFallsBack() {
+        SCRIPT.fail("Tech stocks slump", 503);
+
+        assertThat(educationClient.scoreSimilarity("Tech stocks slump", "Nasdaq falls on rate fears"))
+                .isEqualTo(-1);
+    }
+
+    private static OllamaSimulator startSimulator() {
+        try {
+            return OllamaSimulator.start(SimulatorConfig.builder()
+                    .port(0)
+                    .tokensPerSecond(0)
+                    .firstTokenLatency(LatencyDistribution.fixed(Duration.ZERO))
+                    .script(SCRIPT)
+                    .build());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}